@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 
+ * ArcGeometryBenchmark.java
+ * 
+ * Benchmarks for the per touch work done by the SeekArc: mapping a touch to
+ * progress, placing the thumb and hit testing. Each invocation works through
+ * a fixed set of pre-generated touch points so the numbers are comparable
+ * between runs.
+ * 
+ * @author Neil Davies
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArcGeometryBenchmark {
+
+	static final int SIZE = 1080;
+	static final int PADDING = 90;
+	static final int POINTS = 1024;
+
+	@Param({ "360", "300", "90" })
+	public int sweepAngle;
+
+	@Param({ "0", "180" })
+	public int rotation;
+
+	@Param({ "true", "false" })
+	public boolean clockwise;
+
+	@Param({ "false", "true" })
+	public boolean fastMath;
+
+	private ArcGeometry mGeometry;
+	private final float[] mTouchX = new float[POINTS];
+	private final float[] mTouchY = new float[POINTS];
+	private final int[] mProgress = new int[POINTS];
+
+	@Setup
+	public void setUp() {
+		mGeometry = new ArcGeometry();
+		mGeometry.setMax(100);
+		mGeometry.setStartAngle(30);
+		mGeometry.setSweepAngle(sweepAngle);
+		mGeometry.setRotation(rotation);
+		mGeometry.setClockwise(clockwise);
+		mGeometry.setFastMath(fastMath);
+		mGeometry.setSize(SIZE, SIZE, PADDING);
+		mGeometry.setTouchInside(true, 24, 24);
+
+		// Points scattered around the whole view, inside and outside the arc
+		Random random = new Random(42);
+		for (int i = 0; i < POINTS; i++) {
+			mTouchX[i] = random.nextFloat() * SIZE;
+			mTouchY[i] = random.nextFloat() * SIZE;
+			mProgress[i] = random.nextInt(mGeometry.getMax() + 1);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public int touchToProgress() {
+		int sum = 0;
+		for (int i = 0; i < POINTS; i++) {
+			sum += mGeometry.getProgressForTouch(mTouchX[i], mTouchY[i]);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public int thumbPlacement() {
+		int sum = 0;
+		for (int i = 0; i < POINTS; i++) {
+			mGeometry.setProgress(mProgress[i]);
+			sum += mGeometry.getThumbXPos() + mGeometry.getThumbYPos();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public int hitTest() {
+		int hits = 0;
+		for (int i = 0; i < POINTS; i++) {
+			if (!mGeometry.isTouchIgnored(mTouchX[i], mTouchY[i])) {
+				hits++;
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * The full ACTION_MOVE path: hit test, map to progress and move the
+	 * thumb.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public int touchMove() {
+		int sum = 0;
+		for (int i = 0; i < POINTS; i++) {
+			float x = mTouchX[i];
+			float y = mTouchY[i];
+			if (mGeometry.isTouchIgnored(x, y)) {
+				continue;
+			}
+			int progress = mGeometry.getProgressForTouch(x, y);
+			if (progress != ArcGeometry.INVALID_PROGRESS_VALUE) {
+				mGeometry.setProgress(progress);
+				sum += mGeometry.getThumbXPos();
+			}
+		}
+		return sum;
+	}
+}
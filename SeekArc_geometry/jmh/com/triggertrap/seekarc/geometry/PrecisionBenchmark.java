@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 
+ * PrecisionBenchmark.java
+ * 
+ * Compares the cost of the default float progress math with precise mode
+ * for maxes up to {@link Integer#MAX_VALUE}. That precise mode keeps every
+ * value is checked by ArcGeometryPrecisionTest.
+ * 
+ * @author Neil Davies
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrecisionBenchmark {
+
+	static final int POINTS = 1024;
+
+	@Param({ "100", "1000000", "2147483647" })
+	public int max;
+
+	@Param({ "300", "360" })
+	public int sweepAngle;
+
+	@Param({ "false", "true" })
+	public boolean precise;
+
+	private ArcGeometry mGeometry;
+	private final int[] mProgress = new int[POINTS];
+	private final double[] mAngles = new double[POINTS];
+
+	@Setup
+	public void setUp() {
+		mGeometry = new ArcGeometry();
+		mGeometry.setMax(max);
+		mGeometry.setSweepAngle(sweepAngle);
+		mGeometry.setPrecise(precise);
+		mGeometry.setSize(ArcGeometryBenchmark.SIZE,
+				ArcGeometryBenchmark.SIZE, ArcGeometryBenchmark.PADDING);
+
+		// Random values plus both ends and their neighbours
+		Random random = new Random(42);
+		for (int i = 0; i < POINTS; i++) {
+			mProgress[i] = random.nextInt(max) + 1;
+		}
+		mProgress[0] = 0;
+		mProgress[1] = 1;
+		mProgress[2] = max - 1;
+		mProgress[3] = max;
+		for (int i = 0; i < POINTS; i++) {
+			mAngles[i] = (double) mProgress[i] * sweepAngle / max;
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public long angleToProgress() {
+		long sum = 0;
+		for (int i = 0; i < POINTS; i++) {
+			sum += mGeometry.getProgressForAngle(mAngles[i]);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public float thumbPlacement() {
+		float sum = 0;
+		for (int i = 0; i < POINTS; i++) {
+			mGeometry.setProgress(mProgress[i]);
+			sum += mGeometry.getThumbX() + mGeometry.getThumbY();
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 
+ * TouchPredictionBenchmark.java
+ * 
+ * Measures the cost of replaying a synthetic circular drag through the
+ * {@link TouchTraceReplayer}. The accuracy of the prediction is checked by
+ * TouchPredictorTest.
+ * 
+ * @author Neil Davies
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TouchPredictionBenchmark {
+
+	@Param({ "8", "16", "32" })
+	public long lookaheadMs;
+
+	private TouchTraceReplayer mReplayer;
+	private TouchTrace mTrace;
+
+	@Setup
+	public void setUp() {
+		mReplayer = new TouchTraceReplayer();
+		mTrace = circularDrag(new Random(42), 2000);
+	}
+
+	/**
+	 * A finger going round a 1080 pixel view at a varying speed, sampled at
+	 * 120Hz with a little positional noise.
+	 */
+	static TouchTrace circularDrag(Random random, int samples) {
+		long[] times = new long[samples];
+		float[] x = new float[samples];
+		float[] y = new float[samples];
+		double angle = 0;
+		for (int i = 0; i < samples; i++) {
+			times[i] = i * 8L;
+			// Speed wanders between about 100 and 700 degrees per second
+			double speed = 400 + 300 * Math.sin(i / 50d);
+			angle += speed * 0.008;
+			double radians = Math.toRadians(angle);
+			x[i] = (float) (540 + 450 * Math.sin(radians) + random.nextGaussian());
+			y[i] = (float) (540 - 450 * Math.cos(radians) + random.nextGaussian());
+		}
+		return new TouchTrace(times, x, y);
+	}
+
+	@Benchmark
+	public TouchTraceReplayer.Result replay() {
+		return mReplayer.replay(mTrace, lookaheadMs);
+	}
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 
+ * ValueScaleBenchmark.java
+ * 
+ * The touch to progress and progress to thumb paths with each kind of value
+ * scale, against no scale at all.
+ * 
+ * @author Neil Davies
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueScaleBenchmark {
+
+	static final int MAX = 30000;
+	static final int POINTS = 1024;
+
+	@Param({ "none", "linear", "log", "table" })
+	public String scale;
+
+	private ArcGeometry mGeometry;
+	private final float[] mTouchX = new float[POINTS];
+	private final float[] mTouchY = new float[POINTS];
+	private final int[] mProgress = new int[POINTS];
+
+	@Setup
+	public void setUp() {
+		mGeometry = new ArcGeometry();
+		mGeometry.setSweepAngle(300);
+		mGeometry.setSize(ArcGeometryBenchmark.SIZE,
+				ArcGeometryBenchmark.SIZE, ArcGeometryBenchmark.PADDING);
+		mGeometry.setMax(MAX);
+		if ("linear".equals(scale)) {
+			mGeometry.setValueScale(ValueScale.linear(MAX));
+		} else if ("log".equals(scale)) {
+			mGeometry.setValueScale(ValueScale.log(MAX));
+		} else if ("table".equals(scale)) {
+			// Shutter speeds in milliseconds, a stop apart
+			mGeometry.setValueScale(ValueScale.table(new int[] { 0, 1, 2, 4,
+					8, 16, 33, 66, 125, 250, 500, 1000, 2000, 4000, 8000,
+					15000, 30000 }));
+		}
+
+		Random random = new Random(42);
+		for (int i = 0; i < POINTS; i++) {
+			mTouchX[i] = random.nextFloat() * ArcGeometryBenchmark.SIZE;
+			mTouchY[i] = random.nextFloat() * ArcGeometryBenchmark.SIZE;
+			mProgress[i] = random.nextInt(MAX + 1);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public int touchToProgress() {
+		int sum = 0;
+		for (int i = 0; i < POINTS; i++) {
+			sum += mGeometry.getProgressForTouch(mTouchX[i], mTouchY[i]);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public int thumbPlacement() {
+		int sum = 0;
+		for (int i = 0; i < POINTS; i++) {
+			mGeometry.setProgress(mProgress[i]);
+			sum += mGeometry.getThumbXPos() + mGeometry.getThumbYPos();
+		}
+		return sum;
+	}
+}
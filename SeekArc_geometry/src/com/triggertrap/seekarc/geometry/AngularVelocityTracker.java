@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+/**
+ * 
+ * AngularVelocityTracker.java
+ * 
+ * Tracks the angular velocity of a touch moving around the arc. Angles are
+ * unwrapped as they are added so a drag across the 0/360 boundary is seen as
+ * continuous movement. The velocity is a least squares fit over the most
+ * recent samples. Samples are kept in fixed size arrays so adding one never
+ * allocates.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class AngularVelocityTracker {
+
+	private static final int HISTORY_SIZE = 20;
+
+	/**
+	 * Samples older than this, relative to the newest, are ignored
+	 */
+	private static final long HORIZON_MS = 100;
+
+	private final long[] mTimes = new long[HISTORY_SIZE];
+	private final double[] mAngles = new double[HISTORY_SIZE];
+	private int mNewest = -1;
+	private int mCount;
+	private double mLastRawAngle;
+	private double mUnwrappedAngle;
+
+	public void clear() {
+		mNewest = -1;
+		mCount = 0;
+	}
+
+	/**
+	 * Adds a sample. Consecutive samples are assumed to be less than 180
+	 * degrees apart.
+	 * 
+	 * @param timeMs
+	 *            The time of the sample in milliseconds
+	 * @param angleDegrees
+	 *            The touch angle in degrees, in any range
+	 */
+	public void addSample(long timeMs, double angleDegrees) {
+		if (mCount == 0) {
+			mUnwrappedAngle = angleDegrees;
+		} else {
+			mUnwrappedAngle += wrapDelta(angleDegrees - mLastRawAngle);
+		}
+		mLastRawAngle = angleDegrees;
+
+		mNewest = (mNewest + 1) % HISTORY_SIZE;
+		mTimes[mNewest] = timeMs;
+		mAngles[mNewest] = mUnwrappedAngle;
+		if (mCount < HISTORY_SIZE) {
+			mCount++;
+		}
+	}
+
+	/**
+	 * @return The angular velocity in degrees per second, positive in the
+	 *         direction of increasing angle, or 0 if there aren't enough
+	 *         recent samples
+	 */
+	public double getVelocity() {
+		if (mCount < 2) {
+			return 0;
+		}
+
+		final long newestTime = mTimes[mNewest];
+		double sumT = 0;
+		double sumA = 0;
+		double sumTT = 0;
+		double sumTA = 0;
+		int n = 0;
+		for (int i = 0; i < mCount; i++) {
+			int index = (mNewest - i + HISTORY_SIZE) % HISTORY_SIZE;
+			long age = newestTime - mTimes[index];
+			if (age > HORIZON_MS) {
+				break;
+			}
+			double t = -age / 1000d;
+			double a = mAngles[index] - mUnwrappedAngle;
+			sumT += t;
+			sumA += a;
+			sumTT += t * t;
+			sumTA += t * a;
+			n++;
+		}
+
+		final double denominator = n * sumTT - sumT * sumT;
+		if (n < 2 || denominator == 0) {
+			return 0;
+		}
+		return (n * sumTA - sumT * sumA) / denominator;
+	}
+
+	/**
+	 * @return The newest angle, unwrapped relative to the first sample since
+	 *         the last {@link #clear()}
+	 */
+	public double getAngle() {
+		return mUnwrappedAngle;
+	}
+
+	/**
+	 * @return The time of the newest sample
+	 */
+	public long getTime() {
+		return mCount == 0 ? 0 : mTimes[mNewest];
+	}
+
+	public int getSampleCount() {
+		return mCount;
+	}
+
+	/**
+	 * @return An angle difference brought into the range -180..180
+	 */
+	public static double wrapDelta(double delta) {
+		return delta - 360 * Math.floor((delta + 180) / 360);
+	}
+}
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+/**
+ * 
+ * ArcAnimator.java
+ * 
+ * Animates a fixed number of channels, such as progress and the arc
+ * angles, towards their targets. Each channel follows a cubic Hermite
+ * curve that starts at the current value and velocity and eases into the
+ * target, so retargeting a channel mid-flight carries on smoothly without a
+ * jump or a sudden change of speed. Channels are doubles, which hold every
+ * int exactly, so a progress above 2^24 still lands on its target. All
+ * state is held in primitive arrays and stepping never allocates or boxes.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class ArcAnimator {
+
+	public static final long DEFAULT_DURATION_MS = 300;
+
+	private final double[] mFrom;
+	private final double[] mTo;
+	// Velocity at the start of the segment in units per second
+	private final double[] mFromVelocity;
+	private final long[] mStartNanos;
+	private final boolean[] mActive;
+	private final double[] mValue;
+	private long mDurationNanos = DEFAULT_DURATION_MS * 1000000L;
+
+	/**
+	 * @param channels
+	 *            The number of independent values to animate
+	 */
+	public ArcAnimator(int channels) {
+		mFrom = new double[channels];
+		mTo = new double[channels];
+		mFromVelocity = new double[channels];
+		mStartNanos = new long[channels];
+		mActive = new boolean[channels];
+		mValue = new double[channels];
+	}
+
+	/**
+	 * Starts or retargets an animation. If the channel is already animating
+	 * it continues from where it is now, keeping its current velocity.
+	 * 
+	 * @param channel
+	 *            The channel to animate
+	 * @param current
+	 *            The current value, used if the channel is not animating
+	 * @param target
+	 *            The value to animate to
+	 * @param nowNanos
+	 *            The current time in nanoseconds
+	 */
+	public void animateTo(int channel, double current, double target,
+			long nowNanos) {
+		double velocity = 0;
+		if (mActive[channel]) {
+			final double s = progress(channel, nowNanos);
+			current = valueAt(channel, s);
+			velocity = velocityAt(channel, s);
+		}
+		mFrom[channel] = current;
+		mTo[channel] = target;
+		mFromVelocity[channel] = velocity;
+		mStartNanos[channel] = nowNanos;
+		mValue[channel] = current;
+		mActive[channel] = current != target || velocity != 0;
+	}
+
+	/**
+	 * Moves every active channel on to the given time.
+	 * 
+	 * @return True if any channel is still animating
+	 */
+	public boolean step(long nowNanos) {
+		boolean running = false;
+		for (int channel = 0; channel < mActive.length; channel++) {
+			if (!mActive[channel]) {
+				continue;
+			}
+			final double s = progress(channel, nowNanos);
+			if (s >= 1) {
+				mValue[channel] = mTo[channel];
+				mActive[channel] = false;
+			} else {
+				mValue[channel] = valueAt(channel, s);
+				running = true;
+			}
+		}
+		return running;
+	}
+
+	public void cancel(int channel) {
+		mActive[channel] = false;
+	}
+
+	public void cancelAll() {
+		for (int channel = 0; channel < mActive.length; channel++) {
+			mActive[channel] = false;
+		}
+	}
+
+	public boolean isActive(int channel) {
+		return mActive[channel];
+	}
+
+	public boolean isRunning() {
+		for (int channel = 0; channel < mActive.length; channel++) {
+			if (mActive[channel]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return The value of the channel as of the last {@link #step(long)}
+	 */
+	public double getValue(int channel) {
+		return mValue[channel];
+	}
+
+	public double getTarget(int channel) {
+		return mTo[channel];
+	}
+
+	public long getDurationMs() {
+		return mDurationNanos / 1000000L;
+	}
+
+	/**
+	 * Sets the duration of animations started after this call.
+	 */
+	public void setDurationMs(long durationMs) {
+		if (durationMs <= 0) {
+			throw new IllegalArgumentException("Duration must be greater than 0");
+		}
+		mDurationNanos = durationMs * 1000000L;
+	}
+
+	private double progress(int channel, long nowNanos) {
+		final long elapsed = nowNanos - mStartNanos[channel];
+		if (elapsed <= 0) {
+			return 0;
+		}
+		return Math.min(1, (double) elapsed / mDurationNanos);
+	}
+
+	/**
+	 * Hermite curve from the start value and velocity to the target with
+	 * zero velocity at the end.
+	 */
+	private double valueAt(int channel, double s) {
+		final double s2 = s * s;
+		final double s3 = s2 * s;
+		final double duration = mDurationNanos / 1e9;
+		return (2 * s3 - 3 * s2 + 1) * mFrom[channel]
+				+ (s3 - 2 * s2 + s) * duration * mFromVelocity[channel]
+				+ (-2 * s3 + 3 * s2) * mTo[channel];
+	}
+
+	private double velocityAt(int channel, double s) {
+		if (s >= 1) {
+			return 0;
+		}
+		final double s2 = s * s;
+		final double duration = mDurationNanos / 1e9;
+		return ((6 * s2 - 6 * s) * mFrom[channel]
+				+ (3 * s2 - 4 * s + 1) * duration * mFromVelocity[channel]
+				+ (-6 * s2 + 6 * s) * mTo[channel]) / duration;
+	}
+}
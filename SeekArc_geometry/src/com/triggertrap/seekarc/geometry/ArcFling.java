@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+/**
+ * 
+ * ArcFling.java
+ * 
+ * Inertia for a thumb released while moving. The thumb keeps travelling
+ * along the arc at its release velocity, slowed by exponential friction,
+ * until it almost stops or reaches either end of the sweep. Stepping the
+ * fling does not allocate.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class ArcFling {
+
+	/**
+	 * The default friction, the velocity decays by a factor of e every
+	 * 1 / friction seconds
+	 */
+	public static final float DEFAULT_FRICTION = 4f;
+
+	/**
+	 * Flings slower than this, in degrees per second, are not worth starting
+	 * and end a running fling
+	 */
+	public static final double MIN_VELOCITY = 20;
+
+	private float mFriction = DEFAULT_FRICTION;
+	private double mPosition;
+	private double mVelocity;
+	private double mMinPosition;
+	private double mMaxPosition;
+	private long mLastFrameNanos;
+	private boolean mRunning;
+
+	/**
+	 * Starts a fling.
+	 * 
+	 * @param position
+	 *            The starting position in degrees along the arc
+	 * @param velocity
+	 *            The release velocity in degrees per second
+	 * @param minPosition
+	 *            The start of the sweep
+	 * @param maxPosition
+	 *            The end of the sweep
+	 * @param frameTimeNanos
+	 *            The current time in nanoseconds
+	 * @return False if the velocity was too low to start a fling
+	 */
+	public boolean start(double position, double velocity, double minPosition,
+			double maxPosition, long frameTimeNanos) {
+		mRunning = Math.abs(velocity) >= MIN_VELOCITY;
+		mPosition = position;
+		mVelocity = velocity;
+		mMinPosition = minPosition;
+		mMaxPosition = maxPosition;
+		mLastFrameNanos = frameTimeNanos;
+		return mRunning;
+	}
+
+	/**
+	 * Advances the fling to the given frame time.
+	 * 
+	 * @return True if the fling is still running after this step
+	 */
+	public boolean step(long frameTimeNanos) {
+		if (!mRunning) {
+			return false;
+		}
+		final double dt = Math.max(0, frameTimeNanos - mLastFrameNanos) / 1e9;
+		mLastFrameNanos = frameTimeNanos;
+
+		// Exact integration of dv/dt = -friction * v over the frame
+		final double decay = Math.exp(-mFriction * dt);
+		mPosition += mVelocity * (1 - decay) / mFriction;
+		mVelocity *= decay;
+
+		if (mPosition <= mMinPosition) {
+			mPosition = mMinPosition;
+			mRunning = false;
+		} else if (mPosition >= mMaxPosition) {
+			mPosition = mMaxPosition;
+			mRunning = false;
+		} else if (Math.abs(mVelocity) < MIN_VELOCITY) {
+			mRunning = false;
+		}
+		return mRunning;
+	}
+
+	public void cancel() {
+		mRunning = false;
+	}
+
+	public boolean isRunning() {
+		return mRunning;
+	}
+
+	/**
+	 * @return The current position in degrees along the arc
+	 */
+	public double getPosition() {
+		return mPosition;
+	}
+
+	public double getVelocity() {
+		return mVelocity;
+	}
+
+	public float getFriction() {
+		return mFriction;
+	}
+
+	/**
+	 * @param friction
+	 *            How quickly the fling slows, must be greater than 0. Higher
+	 *            values stop sooner.
+	 */
+	public void setFriction(float friction) {
+		if (friction <= 0) {
+			throw new IllegalArgumentException("Friction must be greater than 0");
+		}
+		mFriction = friction;
+	}
+}
@@ -0,0 +1,831 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+/**
+ * 
+ * ArcGeometry.java
+ * 
+ * The angle and progress math behind the SeekArc. This class has no
+ * dependency on the Android framework so it can be benchmarked and
+ * profiled on a plain JVM.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class ArcGeometry {
+
+	public static final int INVALID_PROGRESS_VALUE = -1;
+	// The initial rotational offset -90 means we start at 12 o'clock
+	public static final int ANGLE_OFFSET = -90;
+
+	/**
+	 * The Maximum value that the arc can be set to
+	 */
+	private int mMax = 100;
+
+	/**
+	 * The Angle to start drawing the arc from
+	 */
+	private int mStartAngle = 0;
+
+	/**
+	 * The Angle through which to draw the arc (Max is 360)
+	 */
+	private int mSweepAngle = 360;
+
+	/**
+	 * The rotation of the arc - 0 is twelve o'clock
+	 */
+	private int mRotation = 0;
+
+	/**
+	 * Will the progress increase clockwise or anti-clockwise
+	 */
+	private boolean mClockwise = true;
+
+	/**
+	 * Use the lookup table and atan2 approximation instead of {@link Math}
+	 */
+	private boolean mFastMath = false;
+
+	/**
+	 * Do the progress and thumb math in double precision throughout
+	 */
+	private boolean mPrecise = false;
+
+	/**
+	 * Maps positions along the sweep to progress, null for linear
+	 */
+	private ValueScale mScale;
+
+	/**
+	 * How many equal divisions the sweep is split into by tick marks, 0 for
+	 * none
+	 */
+	private int mTickCount = 0;
+
+	/**
+	 * Is there a lower thumb, making the progress a range
+	 */
+	private boolean mRange = false;
+
+	// Internal variables
+	private int mArcRadius = 0;
+	private float mProgressSweep = 0;
+	private double mPreciseSweep = 0;
+	private float mArcLeft;
+	private float mArcTop;
+	private float mArcRight;
+	private float mArcBottom;
+	private int mTranslateX;
+	private int mTranslateY;
+	private int mThumbXPos;
+	private int mThumbYPos;
+	// The thumb offset before rounding, only differs from the int position
+	// in precise mode
+	private float mThumbX;
+	private float mThumbY;
+	private float mLowerSweep = 0;
+	private int mLowerThumbXPos;
+	private int mLowerThumbYPos;
+	private float mTouchIgnoreRadius;
+	private TrigTable mTrigTable;
+
+	// The size and padding the arc was last laid out for
+	private int mWidth = -1;
+	private int mHeight = -1;
+	private int mPaddingLeft;
+	private int mPaddingTop;
+	private int mPaddingRight;
+	private int mPaddingBottom;
+
+	/**
+	 * Lays the arc out inside a view of the given size with the same padding
+	 * on every side.
+	 * 
+	 * @see #setSize(int, int, int, int, int, int)
+	 */
+	public boolean setSize(int width, int height, int padding) {
+		return setSize(width, height, padding, padding, padding, padding);
+	}
+
+	/**
+	 * Lays the arc out inside a view of the given size. The arc is centred
+	 * in the area inside the padding and its diameter is the smaller of
+	 * that area's two dimensions. Nothing is recalculated if the size and
+	 * padding are the same as last time.
+	 * 
+	 * @param width
+	 *            The width of the view in pixels
+	 * @param height
+	 *            The height of the view in pixels
+	 * @return True if the layout changed
+	 */
+	public boolean setSize(int width, int height, int paddingLeft,
+			int paddingTop, int paddingRight, int paddingBottom) {
+		if (width == mWidth && height == mHeight
+				&& paddingLeft == mPaddingLeft && paddingTop == mPaddingTop
+				&& paddingRight == mPaddingRight
+				&& paddingBottom == mPaddingBottom) {
+			return false;
+		}
+		mWidth = width;
+		mHeight = height;
+		mPaddingLeft = paddingLeft;
+		mPaddingTop = paddingTop;
+		mPaddingRight = paddingRight;
+		mPaddingBottom = paddingBottom;
+
+		final int contentWidth = Math.max(0, width - paddingLeft - paddingRight);
+		final int contentHeight = Math.max(0, height - paddingTop
+				- paddingBottom);
+		final int arcDiameter = Math.min(contentWidth, contentHeight);
+
+		mTranslateX = paddingLeft + (int) (contentWidth * 0.5f);
+		mTranslateY = paddingTop + (int) (contentHeight * 0.5f);
+
+		mArcRadius = arcDiameter / 2;
+		mArcLeft = mTranslateX - mArcRadius;
+		mArcTop = mTranslateY - mArcRadius;
+		mArcRight = mArcLeft + arcDiameter;
+		mArcBottom = mArcTop + arcDiameter;
+
+		updateThumbPosition();
+		return true;
+	}
+
+	/**
+	 * Works out the radius inside which touches are ignored.
+	 * 
+	 * @param touchInside
+	 *            True if the whole inside of the arc accepts touches
+	 * @param thumbHalfWidth
+	 *            Half the width of the thumb in pixels
+	 * @param thumbHalfHeight
+	 *            Half the height of the thumb in pixels
+	 */
+	public void setTouchInside(boolean touchInside, int thumbHalfWidth,
+			int thumbHalfHeight) {
+		if (touchInside) {
+			mTouchIgnoreRadius = (float) mArcRadius / 4;
+		} else {
+			// Don't use the exact radius makes interaction too tricky
+			mTouchIgnoreRadius = mArcRadius
+					- Math.min(thumbHalfWidth, thumbHalfHeight);
+		}
+	}
+
+	/**
+	 * @return True if a touch at the given view coordinates falls inside the
+	 *         ignore radius and should not move the progress
+	 */
+	public boolean isTouchIgnored(float xPos, float yPos) {
+		boolean ignore = false;
+		float x = xPos - mTranslateX;
+		float y = yPos - mTranslateY;
+
+		// Compare squared distances, no need for the square root
+		float touchRadiusSquared = (x * x) + (y * y);
+		if (mTouchIgnoreRadius > 0
+				&& touchRadiusSquared < mTouchIgnoreRadius * mTouchIgnoreRadius) {
+			ignore = true;
+		}
+		return ignore;
+	}
+
+	/**
+	 * Converts a touch position in view coordinates to an angle in degrees
+	 * measured from the start of the arc.
+	 */
+	public double getTouchDegrees(float xPos, float yPos) {
+		float x = xPos - mTranslateX;
+		float y = yPos - mTranslateY;
+		//invert the x-coord if we are rotating anti-clockwise
+		x= (mClockwise) ? x:-x;
+		// convert to arc Angle
+		double angle;
+		if (mFastMath && !mPrecise) {
+			angle = TrigTable.atan2Degrees(y, x) + 90 - mRotation;
+		} else {
+			angle = Math.toDegrees(Math.atan2(y, x) + (Math.PI / 2)
+					- Math.toRadians(mRotation));
+		}
+		if (angle < 0) {
+			angle = 360 + angle;
+		}
+		angle -= mStartAngle;
+		return angle;
+	}
+
+	/**
+	 * @return The progress for an angle measured from the start of the arc,
+	 *         or {@link #INVALID_PROGRESS_VALUE} if the angle falls outside
+	 *         the sweep
+	 */
+	public int getProgressForAngle(double angle) {
+		if (mScale != null) {
+			if (angle < 0 || angle > mSweepAngle) {
+				return INVALID_PROGRESS_VALUE;
+			}
+			return (int) Math.round(mScale.progressForFraction(angle
+					/ mSweepAngle));
+		}
+		if (mPrecise) {
+			return (int) getLongProgressForAngle(angle);
+		}
+		int touchProgress = (int) Math.round(valuePerDegree() * angle);
+
+		touchProgress = (touchProgress < 0) ? INVALID_PROGRESS_VALUE
+				: touchProgress;
+		touchProgress = (touchProgress > mMax) ? INVALID_PROGRESS_VALUE
+				: touchProgress;
+		return touchProgress;
+	}
+
+	/**
+	 * Maps an angle to progress in double precision, so every progress
+	 * value stays distinct however large the max is.
+	 * 
+	 * @return The progress for an angle measured from the start of the arc,
+	 *         or {@link #INVALID_PROGRESS_VALUE} if the angle falls outside
+	 *         the sweep
+	 */
+	public long getLongProgressForAngle(double angle) {
+		if (mScale != null) {
+			return getProgressForAngle(angle);
+		}
+		final long touchProgress = Math.round(angle * mMax / mSweepAngle);
+		return (touchProgress < 0 || touchProgress > mMax) ? INVALID_PROGRESS_VALUE
+				: touchProgress;
+	}
+
+	/**
+	 * Convenience for {@link #getTouchDegrees(float, float)} followed by
+	 * {@link #getProgressForAngle(double)}.
+	 */
+	public int getProgressForTouch(float xPos, float yPos) {
+		return getProgressForAngle(getTouchDegrees(xPos, yPos));
+	}
+
+	public float valuePerDegree() {
+		return (float) mMax / mSweepAngle;
+	}
+
+	/**
+	 * Sets the progress sweep for the given progress and moves the thumb to
+	 * the end of it.
+	 */
+	public void setProgress(int progress) {
+		if (mPrecise) {
+			mPreciseSweep = preciseSweepForProgress(progress);
+			mProgressSweep = (float) mPreciseSweep;
+		} else {
+			mProgressSweep = sweepForProgress(progress);
+		}
+		updateThumbPosition();
+	}
+
+	/**
+	 * Sets the progress sweep directly, e.g. to draw a predicted position
+	 * that doesn't match a progress value, and moves the thumb to the end of
+	 * it.
+	 * 
+	 * @param progressSweep
+	 *            The sweep in degrees from the start of the arc
+	 */
+	public void setProgressSweep(float progressSweep) {
+		mProgressSweep = progressSweep;
+		mPreciseSweep = progressSweep;
+		updateThumbPosition();
+	}
+
+	/**
+	 * @return The sweep in degrees from the start of the arc that shows the
+	 *         given progress
+	 */
+	public float sweepForProgress(int progress) {
+		if (mPrecise || mScale != null) {
+			return (float) preciseSweepForProgress(progress);
+		}
+		return (float) progress / mMax * mSweepAngle;
+	}
+
+	private double preciseSweepForProgress(int progress) {
+		if (mScale != null) {
+			return mScale.fractionForProgress(progress) * mSweepAngle;
+		}
+		return (double) progress * mSweepAngle / mMax;
+	}
+
+	public void updateThumbPosition() {
+		if (mPrecise) {
+			// No rounding of the angle and a sub-pixel thumb offset
+			final double thumbAngle = Math.toRadians(mStartAngle
+					+ mPreciseSweep + mRotation + 90);
+			mThumbX = (float) (mArcRadius * Math.cos(thumbAngle));
+			mThumbY = (float) (mArcRadius * Math.sin(thumbAngle));
+			mThumbXPos = Math.round(mThumbX);
+			mThumbYPos = Math.round(mThumbY);
+		} else {
+			if (mFastMath) {
+				// Keep the fraction of a degree, truncating it would move
+				// the thumb by up to a degree of arc whatever the table size
+				final float thumbAngle = mStartAngle + mProgressSweep + mRotation + 90;
+				mThumbXPos = Math.round(mArcRadius * mTrigTable.cosDegrees(thumbAngle));
+				mThumbYPos = Math.round(mArcRadius * mTrigTable.sinDegrees(thumbAngle));
+			} else {
+				int thumbAngle = (int) (mStartAngle + mProgressSweep + mRotation + 90);
+				mThumbXPos = (int) (mArcRadius * Math.cos(Math.toRadians(thumbAngle)));
+				mThumbYPos = (int) (mArcRadius * Math.sin(Math.toRadians(thumbAngle)));
+			}
+			mThumbX = mThumbXPos;
+			mThumbY = mThumbYPos;
+		}
+		if (mRange) {
+			updateLowerThumbPosition();
+		}
+	}
+
+	private void updateLowerThumbPosition() {
+		if (mFastMath) {
+			final float thumbAngle = mStartAngle + mLowerSweep + mRotation + 90;
+			mLowerThumbXPos = Math.round(mArcRadius * mTrigTable.cosDegrees(thumbAngle));
+			mLowerThumbYPos = Math.round(mArcRadius * mTrigTable.sinDegrees(thumbAngle));
+		} else {
+			int thumbAngle = (int) (mStartAngle + mLowerSweep + mRotation + 90);
+			mLowerThumbXPos = (int) (mArcRadius * Math.cos(Math.toRadians(thumbAngle)));
+			mLowerThumbYPos = (int) (mArcRadius * Math.sin(Math.toRadians(thumbAngle)));
+		}
+	}
+
+	/**
+	 * Turns the progress into a range with a second, lower thumb. The
+	 * progress arc is drawn from the lower thumb to the upper one. Turning
+	 * the range off puts the lower end back at the start of the arc.
+	 */
+	public void setRange(boolean range) {
+		mRange = range;
+		if (!range) {
+			mLowerSweep = 0;
+		}
+		updateThumbPosition();
+	}
+
+	public boolean isRange() {
+		return mRange;
+	}
+
+	/**
+	 * Sets the lower end of the range and moves the lower thumb to it.
+	 */
+	public void setLowerProgress(int progress) {
+		setLowerSweep(sweepForProgress(progress));
+	}
+
+	/**
+	 * Sets the lower end of the range as a sweep from the start of the arc.
+	 */
+	public void setLowerSweep(float lowerSweep) {
+		mLowerSweep = lowerSweep;
+		updateLowerThumbPosition();
+	}
+
+	/**
+	 * Works out which thumb a touch is aimed at by comparing the angular
+	 * distance from the touch to each end of the range. Distances are
+	 * measured around the circle, so a touch in the gap of a partial arc
+	 * goes to whichever end it is closest to. When the thumbs sit on top of
+	 * each other the touch picks the one it can move away with.
+	 * 
+	 * @param angle
+	 *            The touch angle measured from the start of the arc, as
+	 *            returned by {@link #getTouchDegrees(float, float)}
+	 * @return True for the lower thumb, false for the upper
+	 */
+	public boolean isNearerLowerThumb(double angle) {
+		final double lowerDistance = circularDistance(angle, mLowerSweep);
+		final double upperDistance = circularDistance(angle, mProgressSweep);
+		if (lowerDistance == upperDistance) {
+			return ArcTouchTracker.normalize(angle) < mLowerSweep;
+		}
+		return lowerDistance < upperDistance;
+	}
+
+	private static double circularDistance(double a, double b) {
+		double delta = ArcTouchTracker.normalize(a - b);
+		return (delta > 180) ? 360 - delta : delta;
+	}
+
+	/**
+	 * Builds a new lookup table if the current one can't resolve every
+	 * progress step. Only called when the max or sweep changes.
+	 */
+	private void ensureTrigTable() {
+		int size = TrigTable.sizeFor(mMax, mSweepAngle);
+		if (mTrigTable == null || mTrigTable.getSize() < size) {
+			mTrigTable = new TrigTable(size);
+		}
+	}
+
+	/**
+	 * Works out the bounding box, in view coordinates, of the part of the arc
+	 * between two progress sweeps. Anti-clockwise arcs are mirrored the same
+	 * way the SeekArc mirrors its canvas.
+	 * 
+	 * @param fromSweep
+	 *            The start of the section, in degrees from the arc start
+	 * @param toSweep
+	 *            The end of the section, must not be less than fromSweep
+	 * @param outset
+	 *            How far to grow the box on each side, e.g. half the stroke
+	 *            width
+	 * @param out
+	 *            Receives left, top, right and bottom
+	 */
+	public void getSweepBounds(float fromSweep, float toSweep, float outset,
+			float[] out) {
+		final float centerX = (mArcLeft + mArcRight) / 2;
+		final float centerY = (mArcTop + mArcBottom) / 2;
+		final float radius = (mArcRight - mArcLeft) / 2;
+		final double from = getArcStart() + fromSweep;
+		final double to = getArcStart() + toSweep;
+
+		double cos = Math.cos(Math.toRadians(from));
+		double sin = Math.sin(Math.toRadians(from));
+		float minX = (float) cos;
+		float maxX = minX;
+		float minY = (float) sin;
+		float maxY = minY;
+
+		cos = Math.cos(Math.toRadians(to));
+		sin = Math.sin(Math.toRadians(to));
+		minX = Math.min(minX, (float) cos);
+		maxX = Math.max(maxX, (float) cos);
+		minY = Math.min(minY, (float) sin);
+		maxY = Math.max(maxY, (float) sin);
+
+		// Any quadrant boundary crossed is an extreme of the box
+		for (double axis = Math.ceil(from / 90) * 90; axis < to; axis += 90) {
+			int quadrant = (int) (axis / 90) & 3;
+			switch (quadrant) {
+			case 0:
+				maxX = 1;
+				break;
+			case 1:
+				maxY = 1;
+				break;
+			case 2:
+				minX = -1;
+				break;
+			default:
+				minY = -1;
+				break;
+			}
+		}
+
+		if (!mClockwise) {
+			float mirroredMin = -maxX;
+			maxX = -minX;
+			minX = mirroredMin;
+		}
+
+		out[0] = centerX + minX * radius - outset;
+		out[1] = centerY + minY * radius - outset;
+		out[2] = centerX + maxX * radius + outset;
+		out[3] = centerY + maxY * radius + outset;
+	}
+
+	/**
+	 * @return The x coordinate the thumb is centred on, in view coordinates
+	 */
+	public float getThumbCenterX() {
+		float x = mTranslateX - mThumbX;
+		if (!mClockwise) {
+			// Mirror around the centre of the arc
+			x = mArcLeft + mArcRight - x;
+		}
+		return x;
+	}
+
+	/**
+	 * @return The y coordinate the thumb is centred on, in view coordinates
+	 */
+	public float getThumbCenterY() {
+		return mTranslateY - mThumbY;
+	}
+
+	/**
+	 * @return The angle the arc is drawn from, in canvas degrees
+	 */
+	public int getArcStart() {
+		return mStartAngle + ANGLE_OFFSET + mRotation;
+	}
+
+	public int getMax() {
+		return mMax;
+	}
+
+	/**
+	 * @throws IllegalStateException
+	 *             If a value scale is set and the max isn't the scale's, as
+	 *             the scale alone decides the progress at the end of the
+	 *             sweep
+	 */
+	public void setMax(int max) {
+		if (mScale != null && max != mScale.getMax()) {
+			throw new IllegalStateException("The max of " + mScale.getMax()
+					+ " comes from the value scale, clear the scale first");
+		}
+		mMax = max;
+		if (mFastMath) {
+			ensureTrigTable();
+		}
+	}
+
+	public int getStartAngle() {
+		return mStartAngle;
+	}
+
+	public void setStartAngle(int startAngle) {
+		mStartAngle = startAngle;
+	}
+
+	public int getSweepAngle() {
+		return mSweepAngle;
+	}
+
+	public void setSweepAngle(int sweepAngle) {
+		mSweepAngle = sweepAngle;
+		if (mFastMath) {
+			ensureTrigTable();
+		}
+	}
+
+	public int getRotation() {
+		return mRotation;
+	}
+
+	public void setRotation(int rotation) {
+		mRotation = rotation;
+	}
+
+	public boolean isClockwise() {
+		return mClockwise;
+	}
+
+	public void setClockwise(boolean clockwise) {
+		mClockwise = clockwise;
+	}
+
+	public boolean isFastMath() {
+		return mFastMath;
+	}
+
+	/**
+	 * Switches between exact {@link Math} trigonometry (the default) and a
+	 * precomputed sine/cosine table with an atan2 approximation. The table
+	 * resolution follows the max and sweep angle so each progress step gets
+	 * its own entry, and the thumb is placed at the fractional angle rather
+	 * than the whole degree the exact path uses.
+	 */
+	public void setFastMath(boolean fastMath) {
+		mFastMath = fastMath;
+		if (mFastMath) {
+			ensureTrigTable();
+		}
+		updateThumbPosition();
+	}
+
+	public int getTickCount() {
+		return mTickCount;
+	}
+
+	/**
+	 * Divides the sweep into equal parts with tick marks at each division,
+	 * including both ends. 0, the default, for no ticks.
+	 */
+	public void setTickCount(int tickCount) {
+		mTickCount = (tickCount < 0) ? 0 : tickCount;
+	}
+
+	/**
+	 * @return How many floats {@link #getTickLines(float, float, float[])}
+	 *         writes, four per tick
+	 */
+	public int getTickLineFloats() {
+		if (mTickCount == 0) {
+			return 0;
+		}
+		// A full circle's last tick would sit on top of the first
+		final int ticks = (mSweepAngle >= 360) ? mTickCount : mTickCount + 1;
+		return ticks * 4;
+	}
+
+	/**
+	 * Works out a line across the arc for each tick, in the same canvas
+	 * coordinates the arc is drawn in, ready for Canvas.drawLines.
+	 * 
+	 * @param innerOffset
+	 *            Where each line starts relative to the arc radius, negative
+	 *            for inside the arc
+	 * @param outerOffset
+	 *            Where each line ends relative to the arc radius
+	 * @param out
+	 *            Receives x0, y0, x1, y1 for each tick; must hold
+	 *            {@link #getTickLineFloats()} floats
+	 * @return The number of floats written
+	 */
+	public int getTickLines(float innerOffset, float outerOffset, float[] out) {
+		final int floats = getTickLineFloats();
+		final double step = (double) mSweepAngle / Math.max(mTickCount, 1);
+		final float centerX = (mArcLeft + mArcRight) / 2;
+		final float centerY = (mArcTop + mArcBottom) / 2;
+		final float inner = mArcRadius + innerOffset;
+		final float outer = mArcRadius + outerOffset;
+		final int arcStart = getArcStart();
+		for (int i = 0, j = 0; j < floats; i++, j += 4) {
+			final double angle = Math.toRadians(arcStart + i * step);
+			final float cos = (float) Math.cos(angle);
+			final float sin = (float) Math.sin(angle);
+			out[j] = centerX + inner * cos;
+			out[j + 1] = centerY + inner * sin;
+			out[j + 2] = centerX + outer * cos;
+			out[j + 3] = centerY + outer * sin;
+		}
+		return floats;
+	}
+
+	/**
+	 * Moves a progress value to the nearest tick, for detents. Constant time
+	 * without a value scale.
+	 * 
+	 * @return The progress at the nearest tick, or the progress unchanged
+	 *         if there are no ticks
+	 */
+	public int snapProgress(int progress) {
+		if (mTickCount == 0 || progress == INVALID_PROGRESS_VALUE) {
+			return progress;
+		}
+		final double step = (double) mSweepAngle / mTickCount;
+		final long tick = Math.round(preciseSweepForProgress(progress) / step);
+		final int snapped = getProgressForAngle(Math.min(tick * step,
+				mSweepAngle));
+		return (snapped == INVALID_PROGRESS_VALUE) ? progress : snapped;
+	}
+
+	public ValueScale getValueScale() {
+		return mScale;
+	}
+
+	/**
+	 * Sets how positions along the sweep map to progress. The max becomes
+	 * the scale's max and can't be changed while the scale is set. Null,
+	 * the default, maps linearly and keeps the current max.
+	 */
+	public void setValueScale(ValueScale scale) {
+		mScale = scale;
+		if (scale != null) {
+			setMax(scale.getMax());
+		}
+	}
+
+	public boolean isPrecise() {
+		return mPrecise;
+	}
+
+	/**
+	 * Does the progress math in double precision and places the thumb to a
+	 * fraction of a pixel. Without it the progress sweep and value per
+	 * degree are floats and the thumb sits on whole pixels, at a whole
+	 * degree too with exact math, so with a large max neighbouring progress
+	 * values map to the same angle and the thumb moves in steps. Precise
+	 * mode takes priority over fast math. Off by default.
+	 */
+	public void setPrecise(boolean precise) {
+		mPrecise = precise;
+		mPreciseSweep = mProgressSweep;
+		updateThumbPosition();
+	}
+
+	public int getArcRadius() {
+		return mArcRadius;
+	}
+
+	public float getProgressSweep() {
+		return mProgressSweep;
+	}
+
+	/**
+	 * @return The progress sweep in double precision. Only more accurate
+	 *         than {@link #getProgressSweep()} in precise mode.
+	 */
+	public double getPreciseProgressSweep() {
+		return mPreciseSweep;
+	}
+
+	/**
+	 * @return Where the progress arc starts, as a sweep from the start of
+	 *         the arc. Always 0 unless this is a range.
+	 */
+	public float getLowerSweep() {
+		return mLowerSweep;
+	}
+
+	public float getArcLeft() {
+		return mArcLeft;
+	}
+
+	public float getArcTop() {
+		return mArcTop;
+	}
+
+	public float getArcRight() {
+		return mArcRight;
+	}
+
+	public float getArcBottom() {
+		return mArcBottom;
+	}
+
+	public int getTranslateX() {
+		return mTranslateX;
+	}
+
+	public int getTranslateY() {
+		return mTranslateY;
+	}
+
+	public int getThumbXPos() {
+		return mThumbXPos;
+	}
+
+	public int getThumbYPos() {
+		return mThumbYPos;
+	}
+
+	/**
+	 * @return The thumb x offset from the centre to a fraction of a pixel.
+	 *         The same as {@link #getThumbXPos()} unless in precise mode.
+	 */
+	public float getThumbX() {
+		return mThumbX;
+	}
+
+	public float getThumbY() {
+		return mThumbY;
+	}
+
+	public int getLowerThumbXPos() {
+		return mLowerThumbXPos;
+	}
+
+	public int getLowerThumbYPos() {
+		return mLowerThumbYPos;
+	}
+
+	/**
+	 * @return The x coordinate the lower thumb of a range is centred on, in
+	 *         view coordinates
+	 */
+	public float getLowerThumbCenterX() {
+		float x = mTranslateX - mLowerThumbXPos;
+		if (!mClockwise) {
+			x = mArcLeft + mArcRight - x;
+		}
+		return x;
+	}
+
+	/**
+	 * @return The y coordinate the lower thumb of a range is centred on, in
+	 *         view coordinates
+	 */
+	public float getLowerThumbCenterY() {
+		return mTranslateY - mLowerThumbYPos;
+	}
+
+	public float getTouchIgnoreRadius() {
+		return mTouchIgnoreRadius;
+	}
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+/**
+ * 
+ * ArcTouchTracker.java
+ * 
+ * Follows one touch gesture around an arc, sample by sample, and maps each
+ * sample to progress. Unlike mapping each sample on its own, the angle is
+ * unwrapped as the finger moves so crossing either end of the sweep is
+ * detected: a finger that runs past the end pins the progress at max (or 0
+ * past the start) until it comes back, instead of the progress jumping to
+ * the far end or the sample being dropped as
+ * {@link ArcGeometry#INVALID_PROGRESS_VALUE}. Consecutive samples are
+ * assumed to be less than 180 degrees apart. Nothing is allocated per
+ * sample.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class ArcTouchTracker {
+
+	private final ArcGeometry mGeometry;
+	private boolean mTracking;
+	private boolean mEntered;
+	private double mLastAngle;
+	private double mUnwrappedAngle;
+
+	/**
+	 * @param geometry
+	 *            The arc to track touches on
+	 */
+	public ArcTouchTracker(ArcGeometry geometry) {
+		mGeometry = geometry;
+	}
+
+	/**
+	 * Forgets the current gesture, the next sample starts a new one.
+	 */
+	public void reset() {
+		mTracking = false;
+	}
+
+	/**
+	 * Adds the next sample of the gesture.
+	 * 
+	 * @param xPos
+	 *            The x coordinate in view coordinates
+	 * @param yPos
+	 *            The y coordinate in view coordinates
+	 * @return The progress for the sample, or
+	 *         {@link ArcGeometry#INVALID_PROGRESS_VALUE} if the gesture
+	 *         started outside the sweep and hasn't entered it yet
+	 */
+	public int addTouch(float xPos, float yPos) {
+		final double angle = normalize(mGeometry.getTouchDegrees(xPos, yPos));
+		final int sweepAngle = mGeometry.getSweepAngle();
+
+		if (!mTracking || !mEntered) {
+			mTracking = true;
+			mLastAngle = angle;
+			// Outside the sweep, count from whichever end is closer
+			mUnwrappedAngle = (angle - sweepAngle > 360 - angle) ? angle - 360
+					: angle;
+			// Nothing happens until the finger reaches the sweep itself,
+			// however long it wanders around the gap first
+			mEntered = mUnwrappedAngle >= 0 && mUnwrappedAngle <= sweepAngle;
+			if (!mEntered) {
+				return ArcGeometry.INVALID_PROGRESS_VALUE;
+			}
+			return mGeometry.getProgressForAngle(mUnwrappedAngle);
+		}
+
+		mUnwrappedAngle += AngularVelocityTracker.wrapDelta(angle - mLastAngle);
+		mLastAngle = angle;
+		return mGeometry.getProgressForAngle(getClampedAngle());
+	}
+
+	/**
+	 * @return The finger angle since the start of the gesture, measured from
+	 *         the start of the arc, without wrapping. Goes below 0 or above
+	 *         the sweep when the finger is past either end.
+	 */
+	public double getUnwrappedAngle() {
+		return mUnwrappedAngle;
+	}
+
+	/**
+	 * @return The unwrapped angle held within the sweep
+	 */
+	public double getClampedAngle() {
+		final int sweepAngle = mGeometry.getSweepAngle();
+		return mUnwrappedAngle < 0 ? 0
+				: mUnwrappedAngle > sweepAngle ? sweepAngle : mUnwrappedAngle;
+	}
+
+	public boolean isTracking() {
+		return mTracking;
+	}
+
+	/**
+	 * @return The angle brought into the range 0..360
+	 */
+	static double normalize(double angle) {
+		angle %= 360;
+		return angle < 0 ? angle + 360 : angle;
+	}
+}
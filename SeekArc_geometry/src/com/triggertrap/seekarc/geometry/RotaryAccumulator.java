@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+/**
+ * 
+ * RotaryAccumulator.java
+ * 
+ * Turns a touch going round and round the arc into an unbounded value, like
+ * a rotary encoder. Every full turn adds valuesPerTurn to a 64 bit value;
+ * the part of a step not yet reached is carried over as degrees, so long
+ * drags don't lose precision however large the value gets.
+ * 
+ * Between two samples the finger could have gone either way round. The
+ * shorter way is usually right. A fast drag can move more than 180 degrees
+ * between samples, so the long way is taken when the recent angular
+ * velocity itself predicts a step of more than half a turn over a frame or
+ * two, and the long way lands near that prediction. After a gap the
+ * velocity is forgotten, so a pause never turns into a phantom turn.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class RotaryAccumulator {
+
+	/**
+	 * How much of each new per-sample velocity goes into the running
+	 * estimate
+	 */
+	private static final double VELOCITY_SMOOTHING = 0.5;
+
+	/**
+	 * The longest gap between samples, about two frames, over which the
+	 * velocity is trusted to pick the long way round
+	 */
+	private static final long MAX_LONG_WAY_MS = 33;
+
+	/**
+	 * The longest step taken the long way. Nearer a full turn the finger
+	 * is as likely to have barely moved, e.g. stopping after a fast drag.
+	 */
+	private static final double MAX_LONG_WAY_DEGREES = 270;
+
+	/**
+	 * A gap longer than this means the finger stopped, the velocity starts
+	 * again from the next step
+	 */
+	private static final long VELOCITY_RESET_MS = 100;
+
+	private int mValuesPerTurn;
+	private double mDegreesPerValue;
+	private long mMin = Long.MIN_VALUE;
+	private long mMax = Long.MAX_VALUE;
+	private long mValue;
+	private double mRemainder;
+
+	private boolean mTracking;
+	private double mLastAngle;
+	private long mLastTime;
+	// Degrees per millisecond
+	private double mVelocity;
+
+	/**
+	 * @param valuesPerTurn
+	 *            How much the value changes for one full turn
+	 */
+	public RotaryAccumulator(int valuesPerTurn) {
+		setValuesPerTurn(valuesPerTurn);
+	}
+
+	/**
+	 * Forgets the current gesture, the next sample starts a new one. The
+	 * value is kept.
+	 */
+	public void reset() {
+		mTracking = false;
+		mVelocity = 0;
+	}
+
+	/**
+	 * Adds the next sample of the gesture.
+	 * 
+	 * @param timeMs
+	 *            The time of the sample in milliseconds
+	 * @param angleDegrees
+	 *            The touch angle in degrees, in any range
+	 * @return The value after the sample
+	 */
+	public long addSample(long timeMs, double angleDegrees) {
+		if (!mTracking) {
+			mTracking = true;
+			mLastAngle = angleDegrees;
+			mLastTime = timeMs;
+			return mValue;
+		}
+
+		final long dt = timeMs - mLastTime;
+		final double shortest = AngularVelocityTracker.wrapDelta(angleDegrees
+				- mLastAngle);
+		double delta = shortest;
+		if (dt > VELOCITY_RESET_MS) {
+			mVelocity = 0;
+		} else if (dt > 0 && dt <= MAX_LONG_WAY_MS) {
+			// Only a predicted step of over half a turn can justify the long
+			// way, and only if the long way is the closer one to it
+			final double expected = mVelocity * dt;
+			final double other = shortest > 0 ? shortest - 360 : shortest + 360;
+			if (Math.abs(expected) > 180
+					&& Math.abs(other) < MAX_LONG_WAY_DEGREES
+					&& Math.abs(other - expected) < Math.abs(shortest - expected)) {
+				delta = other;
+			}
+		}
+		if (dt > 0 && dt <= VELOCITY_RESET_MS) {
+			final double velocity = delta / dt;
+			mVelocity = (mVelocity == 0) ? velocity : mVelocity
+					+ VELOCITY_SMOOTHING * (velocity - mVelocity);
+		}
+		mLastAngle = angleDegrees;
+		mLastTime = timeMs;
+
+		addDegrees(delta);
+		return mValue;
+	}
+
+	/**
+	 * Moves the value by a number of degrees of turn.
+	 */
+	public void addDegrees(double degrees) {
+		mRemainder += degrees;
+		final double steps = Math.floor(mRemainder / mDegreesPerValue);
+		if (steps == 0) {
+			return;
+		}
+		mRemainder -= steps * mDegreesPerValue;
+
+		// Saturate rather than overflow at the ends of the range
+		final long step = (long) steps;
+		long value = mValue + step;
+		if (step > 0 && value < mValue) {
+			value = Long.MAX_VALUE;
+		} else if (step < 0 && value > mValue) {
+			value = Long.MIN_VALUE;
+		}
+		if (value > mMax) {
+			value = mMax;
+			mRemainder = 0;
+		} else if (value < mMin) {
+			value = mMin;
+			mRemainder = 0;
+		}
+		mValue = value;
+	}
+
+	public long getValue() {
+		return mValue;
+	}
+
+	/**
+	 * Sets the value, clamped to the bounds, and drops any part step.
+	 */
+	public void setValue(long value) {
+		mValue = (value > mMax) ? mMax : (value < mMin) ? mMin : value;
+		mRemainder = 0;
+	}
+
+	/**
+	 * Limits the value. Unbounded by default.
+	 */
+	public void setBounds(long min, long max) {
+		if (min > max) {
+			throw new IllegalArgumentException("min must not be more than max");
+		}
+		mMin = min;
+		mMax = max;
+		setValue(mValue);
+	}
+
+	public long getMin() {
+		return mMin;
+	}
+
+	public long getMax() {
+		return mMax;
+	}
+
+	public int getValuesPerTurn() {
+		return mValuesPerTurn;
+	}
+
+	public void setValuesPerTurn(int valuesPerTurn) {
+		if (valuesPerTurn <= 0) {
+			throw new IllegalArgumentException(
+					"Values per turn must be greater than 0");
+		}
+		mValuesPerTurn = valuesPerTurn;
+		mDegreesPerValue = 360.0 / valuesPerTurn;
+		mRemainder = 0;
+	}
+
+	/**
+	 * @return Where the value sits within its turn, 0 (inclusive) to 1
+	 *         (exclusive), including any part step
+	 */
+	public double getTurnFraction() {
+		long inTurn = mValue % mValuesPerTurn;
+		if (inTurn < 0) {
+			inTurn += mValuesPerTurn;
+		}
+		return (inTurn + mRemainder / mDegreesPerValue) / mValuesPerTurn;
+	}
+}
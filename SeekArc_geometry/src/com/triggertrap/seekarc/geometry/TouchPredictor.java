@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+/**
+ * 
+ * TouchPredictor.java
+ * 
+ * Predicts where a finger moving around the arc will be a short time
+ * ahead, to hide some of the input to display latency. The prediction is a
+ * linear extrapolation of the angular velocity from the recent samples,
+ * limited to {@link #MAX_PREDICTION_DEGREES} so a noisy velocity can't throw
+ * the thumb far ahead.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class TouchPredictor {
+
+	/**
+	 * The furthest ahead a prediction may be, in degrees
+	 */
+	public static final double MAX_PREDICTION_DEGREES = 30;
+
+	private final AngularVelocityTracker mTracker = new AngularVelocityTracker();
+
+	public void reset() {
+		mTracker.clear();
+	}
+
+	/**
+	 * @param timeMs
+	 *            The time of the sample in milliseconds
+	 * @param angleDegrees
+	 *            The touch angle in degrees
+	 */
+	public void addSample(long timeMs, double angleDegrees) {
+		mTracker.addSample(timeMs, angleDegrees);
+	}
+
+	/**
+	 * @param lookaheadMs
+	 *            How far ahead of the newest sample to predict
+	 * @return How far, in degrees, the finger is expected to move from the
+	 *         newest sample in that time
+	 */
+	public double predictOffset(long lookaheadMs) {
+		double offset = mTracker.getVelocity() * lookaheadMs / 1000d;
+		if (offset > MAX_PREDICTION_DEGREES) {
+			offset = MAX_PREDICTION_DEGREES;
+		} else if (offset < -MAX_PREDICTION_DEGREES) {
+			offset = -MAX_PREDICTION_DEGREES;
+		}
+		return offset;
+	}
+
+	/**
+	 * @return The predicted angle, unwrapped in the same way as
+	 *         {@link AngularVelocityTracker#getAngle()}
+	 */
+	public double predictAngle(long lookaheadMs) {
+		return mTracker.getAngle() + predictOffset(lookaheadMs);
+	}
+
+	public int getSampleCount() {
+		return mTracker.getSampleCount();
+	}
+}
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+/**
+ * 
+ * TrigTable.java
+ * 
+ * Precomputed sine and cosine for whole circle lookups, plus a polynomial
+ * atan2. Used by {@link ArcGeometry} when fast math is turned on so that
+ * the per touch and per progress change paths avoid the transcendental
+ * functions in {@link Math}.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class TrigTable {
+
+	/**
+	 * The smallest table, one entry per degree rounded up to a power of two
+	 */
+	public static final int MIN_SIZE = 512;
+
+	/**
+	 * The largest table, 64k entries is a resolution of ~0.0055 degrees
+	 */
+	public static final int MAX_SIZE = 1 << 16;
+
+	private static final double HALF_PI = Math.PI / 2;
+	private static final double DEGREES_PER_RADIAN = 180 / Math.PI;
+
+	private final int mSize;
+	private final int mMask;
+	private final double mEntriesPerDegree;
+	private final float[] mSin;
+
+	/**
+	 * @param size
+	 *            The number of entries for a full circle, rounded up to a
+	 *            power of two and clamped to {@link #MIN_SIZE}..
+	 *            {@link #MAX_SIZE}
+	 */
+	public TrigTable(int size) {
+		mSize = sizeFor(size);
+		mMask = mSize - 1;
+		mEntriesPerDegree = mSize / 360d;
+		mSin = new float[mSize];
+		for (int i = 0; i < mSize; i++) {
+			mSin[i] = (float) Math.sin(2 * Math.PI * i / mSize);
+		}
+	}
+
+	/**
+	 * Works out the table size needed to give every progress step on an arc
+	 * its own entry.
+	 * 
+	 * @param max
+	 *            The maximum progress value of the arc
+	 * @param sweepAngle
+	 *            The sweep of the arc in degrees
+	 * @return The number of entries needed for a full circle
+	 */
+	public static int sizeFor(int max, int sweepAngle) {
+		if (max <= 0 || sweepAngle <= 0) {
+			return MIN_SIZE;
+		}
+		// Two entries per step keeps the interpolation error far under the
+		// distance between neighbouring steps
+		long entries = 2L * 360 * max / sweepAngle;
+		return sizeFor((int) Math.min(entries, MAX_SIZE));
+	}
+
+	private static int sizeFor(int size) {
+		int tableSize = MIN_SIZE;
+		while (tableSize < size && tableSize < MAX_SIZE) {
+			tableSize <<= 1;
+		}
+		return tableSize;
+	}
+
+	public int getSize() {
+		return mSize;
+	}
+
+	/**
+	 * @return The sine of an angle in degrees, any value is allowed. Values
+	 *         between table entries are interpolated, so the result does not
+	 *         step with the table's resolution.
+	 */
+	public float sinDegrees(double degrees) {
+		return lookup(degrees * mEntriesPerDegree);
+	}
+
+	/**
+	 * @return The cosine of an angle in degrees, any value is allowed
+	 */
+	public float cosDegrees(double degrees) {
+		return lookup(degrees * mEntriesPerDegree + (mSize >> 2));
+	}
+
+	private float lookup(double entry) {
+		final double floor = Math.floor(entry);
+		final int index = (int) (long) floor;
+		final float fraction = (float) (entry - floor);
+		final float low = mSin[index & mMask];
+		final float high = mSin[(index + 1) & mMask];
+		return low + (high - low) * fraction;
+	}
+
+	/**
+	 * A polynomial approximation of {@link Math#atan2(double, double)}. The
+	 * maximum error is around 0.0001 degrees which is well
+	 * under a progress step for any arc the table can resolve.
+	 * 
+	 * @return The angle in degrees in the range -180..180
+	 */
+	public static double atan2Degrees(double y, double x) {
+		if (x == 0 && y == 0) {
+			return 0;
+		}
+		final double ax = Math.abs(x);
+		final double ay = Math.abs(y);
+		final boolean steep = ay > ax;
+		final double z = steep ? ax / ay : ay / ax;
+		final double z2 = z * z;
+		double angle = z * (0.99997726 + z2 * (-0.33262347 + z2 * (0.19354346
+				+ z2 * (-0.11643287 + z2 * (0.05265332 + z2 * -0.01172120)))));
+		if (steep) {
+			angle = HALF_PI - angle;
+		}
+		if (x < 0) {
+			angle = Math.PI - angle;
+		}
+		if (y < 0) {
+			angle = -angle;
+		}
+		return angle * DEGREES_PER_RADIAN;
+	}
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+import java.util.Arrays;
+
+/**
+ * 
+ * ValueScale.java
+ * 
+ * Maps a position along the arc, as a fraction of the sweep, to progress
+ * and back when the two aren't proportional, e.g. exposure times where each
+ * doubling should take the same turn. The mapping is a set of knots, each a
+ * fraction paired with a progress value, both increasing, with straight
+ * lines between them. Both directions are a binary search over the knots
+ * followed by one interpolation, so mapping a touch costs O(log n) and
+ * allocates nothing.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class ValueScale {
+
+	/**
+	 * Knots used by {@link #log(int)}
+	 */
+	public static final int DEFAULT_LOG_KNOTS = 256;
+
+	private final double[] mFractions;
+	private final double[] mProgress;
+
+	/**
+	 * Builds a scale from knots. The arrays are used as they are, not
+	 * copied.
+	 * 
+	 * @param fractions
+	 *            Positions along the sweep, increasing from 0 to 1
+	 * @param progress
+	 *            The progress at each position, increasing from 0
+	 */
+	protected ValueScale(double[] fractions, double[] progress) {
+		if (fractions.length < 2 || fractions.length != progress.length) {
+			throw new IllegalArgumentException(
+					"Need at least two knots and a progress value for each");
+		}
+		if (fractions[0] != 0 || fractions[fractions.length - 1] != 1) {
+			throw new IllegalArgumentException("Fractions must run from 0 to 1");
+		}
+		if (progress[0] != 0) {
+			throw new IllegalArgumentException("Progress must start at 0");
+		}
+		for (int i = 1; i < fractions.length; i++) {
+			if (fractions[i] <= fractions[i - 1]
+					|| progress[i] <= progress[i - 1]) {
+				throw new IllegalArgumentException("Knots must be increasing");
+			}
+		}
+		mFractions = fractions;
+		mProgress = progress;
+	}
+
+	/**
+	 * A scale from knots, copying the arrays.
+	 * 
+	 * @see #ValueScale(double[], double[])
+	 */
+	public static ValueScale fromKnots(double[] fractions, double[] progress) {
+		return new ValueScale(fractions.clone(), progress.clone());
+	}
+
+	/**
+	 * The same mapping as having no scale, progress proportional to the
+	 * angle.
+	 */
+	public static ValueScale linear(int max) {
+		return new ValueScale(new double[] { 0, 1 }, new double[] { 0, max });
+	}
+
+	/**
+	 * @see #log(int, int)
+	 */
+	public static ValueScale log(int max) {
+		return log(max, DEFAULT_LOG_KNOTS);
+	}
+
+	/**
+	 * A logarithmic scale: equal turns multiply progress + 1 by equal
+	 * factors, so small values get as much room as large ones.
+	 * 
+	 * @param knots
+	 *            How many points of the curve to keep. Progress between them
+	 *            is interpolated.
+	 */
+	public static ValueScale log(int max, int knots) {
+		if (max <= 0 || knots < 2) {
+			throw new IllegalArgumentException(
+					"Need a positive max and at least two knots");
+		}
+		final double[] fractions = new double[knots];
+		final double[] progress = new double[knots];
+		final double logRange = Math.log1p(max);
+		int count = 0;
+		for (int i = 0; i < knots; i++) {
+			final double fraction = (double) i / (knots - 1);
+			final double value = Math.expm1(fraction * logRange);
+			// Small maxes give several knots the same value, keep the first
+			if (count > 0 && value <= progress[count - 1]) {
+				continue;
+			}
+			fractions[count] = fraction;
+			progress[count] = value;
+			count++;
+		}
+		// The last knot is exactly max, whatever the rounding
+		fractions[count - 1] = 1;
+		progress[count - 1] = max;
+		return new ValueScale(Arrays.copyOf(fractions, count),
+				Arrays.copyOf(progress, count));
+	}
+
+	/**
+	 * A scale through the given values spaced evenly along the sweep, e.g.
+	 * a list of shutter speeds. The scale doesn't step from one value to the
+	 * next: positions between two values give progress interpolated between
+	 * them. For a dial that only stops on the values, set the tick count to
+	 * one less than the number of values and snap to ticks.
+	 * 
+	 * @param values
+	 *            The progress at each step, increasing from 0
+	 */
+	public static ValueScale table(int[] values) {
+		final double[] fractions = new double[values.length];
+		final double[] progress = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			fractions[i] = (double) i / (values.length - 1);
+			progress[i] = values[i];
+		}
+		return new ValueScale(fractions, progress);
+	}
+
+	/**
+	 * @return The progress at the end of the sweep
+	 */
+	public int getMax() {
+		return (int) mProgress[mProgress.length - 1];
+	}
+
+	/**
+	 * @param fraction
+	 *            A position along the sweep, 0..1
+	 * @return The progress at that position, not rounded
+	 */
+	public double progressForFraction(double fraction) {
+		return interpolate(mFractions, mProgress, fraction);
+	}
+
+	/**
+	 * @param progress
+	 *            A progress value, 0..max
+	 * @return The position of that progress along the sweep, 0..1
+	 */
+	public double fractionForProgress(double progress) {
+		return interpolate(mProgress, mFractions, progress);
+	}
+
+	private static double interpolate(double[] from, double[] to, double x) {
+		final int last = from.length - 1;
+		if (x <= from[0]) {
+			return to[0];
+		}
+		if (x >= from[last]) {
+			return to[last];
+		}
+		int index = Arrays.binarySearch(from, x);
+		if (index >= 0) {
+			return to[index];
+		}
+		// Between knots: -index - 1 is the first knot above x
+		final int high = -index - 1;
+		final int low = high - 1;
+		final double t = (x - from[low]) / (from[high] - from[low]);
+		return to[low] + t * (to[high] - to[low]);
+	}
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * 
+ * ArcAnimatorTest.java
+ * 
+ * Checks that progress channels land exactly on large targets, including
+ * after a retarget mid-flight, as precise mode needs for any int max.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class ArcAnimatorTest {
+
+	private static final long FRAME_NANOS = 16000000L;
+	private static final int[] TARGETS = { 16777217, 123456789,
+			Integer.MAX_VALUE - 1, Integer.MAX_VALUE };
+
+	@Test
+	public void landsExactlyOnLargeTargets() {
+		for (int target : TARGETS) {
+			final ArcAnimator animator = new ArcAnimator(1);
+			animator.animateTo(0, 0, target, 0);
+			assertEquals(target, Math.round(run(animator, 0)));
+		}
+	}
+
+	@Test
+	public void landsExactlyAfterARetarget() {
+		for (int target : TARGETS) {
+			final ArcAnimator animator = new ArcAnimator(1);
+			animator.animateTo(0, target / 2, 1, 0);
+			animator.step(5 * FRAME_NANOS);
+			animator.animateTo(0, 0, target, 5 * FRAME_NANOS);
+			assertEquals(target, Math.round(run(animator, 5 * FRAME_NANOS)));
+		}
+	}
+
+	@Test
+	public void movesBetweenTheEnds() {
+		final ArcAnimator animator = new ArcAnimator(1);
+		animator.animateTo(0, 100, 200, 0);
+		animator.step(8 * FRAME_NANOS);
+		final double value = animator.getValue(0);
+		assertTrue("value " + value, value > 100 && value < 200);
+		assertTrue(animator.isActive(0));
+	}
+
+	/**
+	 * Steps frame by frame until the animation ends
+	 * 
+	 * @return The final value
+	 */
+	private static double run(ArcAnimator animator, long startNanos) {
+		long now = startNanos;
+		while (animator.step(now)) {
+			now += FRAME_NANOS;
+		}
+		return animator.getValue(0);
+	}
+}
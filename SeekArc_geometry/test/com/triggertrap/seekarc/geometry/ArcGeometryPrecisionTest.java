@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * 
+ * ArcGeometryPrecisionTest.java
+ * 
+ * Checks that precise mode keeps every progress value distinct, both from
+ * an angle to progress and from progress to a thumb position, for maxes up
+ * to {@link Integer#MAX_VALUE}.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class ArcGeometryPrecisionTest {
+
+	private static final int SIZE = 1080;
+	private static final int PADDING = 40;
+	private static final int POINTS = 1024;
+	private static final int[] MAXES = { 100, 1000000, Integer.MAX_VALUE };
+	private static final int[] SWEEPS = { 300, 360 };
+
+	@Test
+	public void preciseRoundTripsEveryValue() {
+		for (int max : MAXES) {
+			for (int sweepAngle : SWEEPS) {
+				final ArcGeometry geometry = newGeometry(max, sweepAngle, true);
+				final int[] progress = sampleProgress(max);
+				for (int i = 0; i < POINTS; i++) {
+					final double angle = (double) progress[i] * sweepAngle / max;
+					assertEquals("max " + max + " sweep " + sweepAngle,
+							progress[i], geometry.getProgressForAngle(angle));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void preciseGivesNeighboursTheirOwnSweep() {
+		for (int max : MAXES) {
+			for (int sweepAngle : SWEEPS) {
+				final ArcGeometry geometry = newGeometry(max, sweepAngle, true);
+				final int[] progress = sampleProgress(max);
+				for (int i = 0; i < POINTS; i++) {
+					if (progress[i] == max) {
+						continue;
+					}
+					geometry.setProgress(progress[i] + 1);
+					final double next = geometry.getPreciseProgressSweep();
+					geometry.setProgress(progress[i]);
+					assertTrue("max " + max + " sweep " + sweepAngle
+							+ " progress " + progress[i],
+							next > geometry.getPreciseProgressSweep());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void preciseThumbWithinHalfAPixel() {
+		for (int max : MAXES) {
+			for (int sweepAngle : SWEEPS) {
+				final ArcGeometry geometry = newGeometry(max, sweepAngle, true);
+				final int radius = geometry.getArcRadius();
+				final int[] progress = sampleProgress(max);
+				for (int i = 0; i < POINTS; i++) {
+					geometry.setProgress(progress[i]);
+					final double angle = Math.toRadians((double) progress[i]
+							* sweepAngle / max + 90);
+					assertEquals("max " + max + " sweep " + sweepAngle,
+							radius * Math.cos(angle), geometry.getThumbX(), 0.5);
+					assertEquals("max " + max + " sweep " + sweepAngle,
+							radius * Math.sin(angle), geometry.getThumbY(), 0.5);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void fastMathThumbWithinHalfAPixel() {
+		for (int sweepAngle : SWEEPS) {
+			final ArcGeometry geometry = newGeometry(1000, sweepAngle, false);
+			geometry.setFastMath(true);
+			final int radius = geometry.getArcRadius();
+			for (int progress = 0; progress <= 1000; progress++) {
+				geometry.setProgress(progress);
+				final double angle = Math.toRadians((double) progress
+						* sweepAngle / 1000 + 90);
+				final String message = "sweep " + sweepAngle + " progress "
+						+ progress;
+				assertEquals(message, radius * Math.cos(angle),
+						geometry.getThumbXPos(), 0.51);
+				assertEquals(message, radius * Math.sin(angle),
+						geometry.getThumbYPos(), 0.51);
+			}
+		}
+	}
+
+	@Test
+	public void floatLosesValuesAtLargeMax() {
+		// Guards the point of precise mode: if the float math ever stops
+		// losing values this test, and precise mode, can go
+		final ArcGeometry geometry = newGeometry(Integer.MAX_VALUE, 360, false);
+		final int[] progress = sampleProgress(Integer.MAX_VALUE);
+		int wrong = 0;
+		for (int i = 0; i < POINTS; i++) {
+			final double angle = (double) progress[i] * 360 / Integer.MAX_VALUE;
+			if (geometry.getProgressForAngle(angle) != progress[i]) {
+				wrong++;
+			}
+		}
+		assertTrue("float math got " + wrong + " wrong", wrong > 0);
+	}
+
+	private static ArcGeometry newGeometry(int max, int sweepAngle,
+			boolean precise) {
+		final ArcGeometry geometry = new ArcGeometry();
+		geometry.setMax(max);
+		geometry.setSweepAngle(sweepAngle);
+		geometry.setPrecise(precise);
+		geometry.setSize(SIZE, SIZE, PADDING);
+		return geometry;
+	}
+
+	/**
+	 * @return Random values plus both ends and their neighbours
+	 */
+	private static int[] sampleProgress(int max) {
+		final int[] progress = new int[POINTS];
+		final Random random = new Random(42);
+		for (int i = 0; i < POINTS; i++) {
+			progress[i] = random.nextInt(max) + 1;
+		}
+		progress[0] = 0;
+		progress[1] = 1;
+		progress[2] = max - 1;
+		progress[3] = max;
+		return progress;
+	}
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 
+ * ArcTouchTrackerTest.java
+ * 
+ * Follows gestures around a 300 degree arc starting at 30 degrees, with the
+ * 60 degree gap between the end and the start of the sweep.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class ArcTouchTrackerTest {
+
+	private static final int SIZE = 1000;
+	private static final int INVALID = ArcGeometry.INVALID_PROGRESS_VALUE;
+
+	private ArcGeometry mGeometry;
+	private ArcTouchTracker mTracker;
+
+	@Before
+	public void setUp() {
+		mGeometry = new ArcGeometry();
+		mGeometry.setMax(100);
+		mGeometry.setStartAngle(30);
+		mGeometry.setSweepAngle(300);
+		mGeometry.setSize(SIZE, SIZE, 0);
+		mTracker = new ArcTouchTracker(mGeometry);
+	}
+
+	@Test
+	public void followsAGestureInsideTheSweep() {
+		assertEquals(50, touch(150));
+		assertEquals(60, touch(180));
+		assertEquals(40, touch(120));
+	}
+
+	@Test
+	public void pinsAtTheEndsOnceInside() {
+		assertEquals(90, touch(270));
+		assertEquals(100, touch(310));
+		assertEquals(100, touch(350));
+		assertEquals(100, touch(310));
+		assertEquals(90, touch(270));
+		assertEquals(50, touch(150));
+		assertEquals(10, touch(30));
+		assertEquals(0, touch(-10));
+		assertEquals(0, touch(-40));
+	}
+
+	@Test
+	public void staysInvalidInTheGapUntilTheSweepIsReached() {
+		assertEquals(INVALID, touch(-30));
+		assertEquals(INVALID, touch(-29.4));
+		assertEquals(INVALID, touch(-45));
+		assertEquals(INVALID, touch(-10));
+		assertEquals(1, touch(3));
+		// Inside now, so running back into the gap pins at the start
+		assertEquals(0, touch(-20));
+	}
+
+	@Test
+	public void entersFromTheGapAtEitherEnd() {
+		assertEquals(INVALID, touch(-5));
+		assertEquals(INVALID, touch(-50));
+		assertEquals(99, touch(297));
+	}
+
+	@Test
+	public void resetStartsANewGesture() {
+		assertEquals(50, touch(150));
+		mTracker.reset();
+		assertEquals(INVALID, touch(-30));
+	}
+
+	/**
+	 * Touches the arc at an angle measured from its start.
+	 */
+	private int touch(double angle) {
+		final double radians = Math.toRadians(angle + 30 - 90);
+		final float radius = SIZE / 4f;
+		return mTracker.addTouch((float) (SIZE / 2 + radius * Math.cos(radians)),
+				(float) (SIZE / 2 + radius * Math.sin(radians)));
+	}
+}
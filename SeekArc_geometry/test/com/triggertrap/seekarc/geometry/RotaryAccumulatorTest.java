@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 
+ * RotaryAccumulatorTest.java
+ * 
+ * Feeds gestures at one value per degree, with touch angles wrapped to
+ * 0..360 the way they come from the geometry, and checks which way round
+ * each step is counted.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class RotaryAccumulatorTest {
+
+	private static final int FRAME_MS = 16;
+
+	private RotaryAccumulator mAccumulator;
+	private long mTime;
+
+	@Before
+	public void setUp() {
+		mAccumulator = new RotaryAccumulator(360);
+	}
+
+	@Test
+	public void countsASlowDragTheShortWay() {
+		for (int angle = 0; angle <= 345; angle += 15) {
+			sample(FRAME_MS, angle);
+		}
+		assertEquals(345, mAccumulator.getValue());
+		assertEquals(375, sample(FRAME_MS, 375));
+	}
+
+	@Test
+	public void followsAFastStepOverHalfATurn() {
+		sample(0, 0);
+		sample(FRAME_MS, 175);
+		sample(FRAME_MS, 350);
+		assertEquals(525, sample(FRAME_MS, 525));
+		// 210 degrees in 20ms, the shortest way would be 150 backwards
+		assertEquals(735, sample(20, 735));
+	}
+
+	@Test
+	public void stillSampleAfterAFastDragAddsNothing() {
+		sample(0, 0);
+		sample(10, 175);
+		sample(10, 350);
+		assertEquals(525, sample(10, 525));
+		assertEquals(525, sample(FRAME_MS, 525));
+		assertEquals(525, sample(FRAME_MS, 525));
+	}
+
+	@Test
+	public void pauseThenNudgeBackAddsNoTurn() {
+		// About a turn a second up to 345, then a pause and a small move back
+		for (int angle = 0; angle <= 345; angle += 15) {
+			sample(40, angle);
+		}
+		assertEquals(345, mAccumulator.getValue());
+		assertEquals(343, sample(600, 343));
+	}
+
+	@Test
+	public void followsAReversal() {
+		for (int angle = 0; angle <= 180; angle += 30) {
+			sample(FRAME_MS, angle);
+		}
+		for (int angle = 150; angle >= -90; angle -= 30) {
+			sample(FRAME_MS, angle);
+		}
+		assertEquals(-90, mAccumulator.getValue());
+	}
+
+	private long sample(long dt, double angle) {
+		mTime += dt;
+		return mAccumulator.addSample(mTime, ((angle % 360) + 360) % 360);
+	}
+}
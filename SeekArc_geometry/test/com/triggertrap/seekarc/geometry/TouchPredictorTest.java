@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+import org.junit.Test;
+
+/**
+ * 
+ * TouchPredictorTest.java
+ * 
+ * Replays the drag in drag_reversal.csv through the predictor and checks
+ * that predicting beats drawing at the newest sample.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class TouchPredictorTest {
+
+	private static final String TRACE = "drag_reversal.csv";
+
+	@Test
+	public void predictionBeatsBaseline() throws IOException {
+		final TouchTrace trace = readTrace();
+		final TouchTraceReplayer replayer = new TouchTraceReplayer();
+		for (long lookaheadMs = 8; lookaheadMs <= 32; lookaheadMs *= 2) {
+			final TouchTraceReplayer.Result result = replayer.replay(trace,
+					lookaheadMs);
+			assertTrue("lookahead " + lookaheadMs + "ms: " + result,
+					result.samples > 100);
+			assertTrue("lookahead " + lookaheadMs + "ms: " + result,
+					result.meanError < result.baselineMeanError * 0.75);
+		}
+	}
+
+	@Test
+	public void predictionIsLimited() throws IOException {
+		final TouchTraceReplayer.Result result = new TouchTraceReplayer()
+				.replay(readTrace(), 1000);
+		assertTrue(result.toString(),
+				result.maxError <= result.baselineMaxError
+						+ TouchPredictor.MAX_PREDICTION_DEGREES);
+	}
+
+	private TouchTrace readTrace() throws IOException {
+		final Reader reader = new InputStreamReader(getClass()
+				.getResourceAsStream(TRACE), "UTF-8");
+		try {
+			return TouchTrace.read(reader);
+		} finally {
+			reader.close();
+		}
+	}
+}
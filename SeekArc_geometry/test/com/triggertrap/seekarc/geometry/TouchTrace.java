@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * 
+ * TouchTrace.java
+ * 
+ * A recorded touch gesture: the time and position of each sample, in the
+ * order they arrived. Traces can be read from text with one
+ * <code>time,x,y</code> sample per line, times in milliseconds and
+ * positions in view pixels. Blank lines and lines starting with # are
+ * skipped.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class TouchTrace {
+
+	private final long[] mTimes;
+	private final float[] mX;
+	private final float[] mY;
+
+	public TouchTrace(long[] times, float[] x, float[] y) {
+		if (times.length != x.length || times.length != y.length) {
+			throw new IllegalArgumentException("Sample arrays differ in length");
+		}
+		mTimes = times;
+		mX = x;
+		mY = y;
+	}
+
+	/**
+	 * Reads a trace in <code>time,x,y</code> format.
+	 * 
+	 * @throws IOException
+	 *             If reading fails or a line can't be parsed
+	 */
+	public static TouchTrace read(Reader reader) throws IOException {
+		BufferedReader in = new BufferedReader(reader);
+		long[] times = new long[64];
+		float[] x = new float[64];
+		float[] y = new float[64];
+		int count = 0;
+		int lineNumber = 0;
+		String line;
+		while ((line = in.readLine()) != null) {
+			lineNumber++;
+			line = line.trim();
+			if (line.length() == 0 || line.charAt(0) == '#') {
+				continue;
+			}
+			String[] fields = line.split(",");
+			if (fields.length != 3) {
+				throw new IOException("Expected time,x,y on line " + lineNumber);
+			}
+			if (count == times.length) {
+				long[] newTimes = new long[count * 2];
+				float[] newX = new float[count * 2];
+				float[] newY = new float[count * 2];
+				System.arraycopy(times, 0, newTimes, 0, count);
+				System.arraycopy(x, 0, newX, 0, count);
+				System.arraycopy(y, 0, newY, 0, count);
+				times = newTimes;
+				x = newX;
+				y = newY;
+			}
+			try {
+				times[count] = Long.parseLong(fields[0].trim());
+				x[count] = Float.parseFloat(fields[1].trim());
+				y[count] = Float.parseFloat(fields[2].trim());
+			} catch (NumberFormatException e) {
+				throw new IOException("Bad number on line " + lineNumber);
+			}
+			count++;
+		}
+
+		long[] trimmedTimes = new long[count];
+		float[] trimmedX = new float[count];
+		float[] trimmedY = new float[count];
+		System.arraycopy(times, 0, trimmedTimes, 0, count);
+		System.arraycopy(x, 0, trimmedX, 0, count);
+		System.arraycopy(y, 0, trimmedY, 0, count);
+		return new TouchTrace(trimmedTimes, trimmedX, trimmedY);
+	}
+
+	public int size() {
+		return mTimes.length;
+	}
+
+	public long getTime(int index) {
+		return mTimes[index];
+	}
+
+	public float getX(int index) {
+		return mX[index];
+	}
+
+	public float getY(int index) {
+		return mY[index];
+	}
+}
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * 
+ * TouchTraceReplayer.java
+ * 
+ * Replays recorded touch traces through a {@link TouchPredictor} and
+ * measures how far the predicted angle is from where the finger actually
+ * was after the lookahead time. The error without prediction, i.e. just
+ * drawing at the newest sample, is measured alongside for comparison.
+ * 
+ * Can be run from the command line with a lookahead in milliseconds and one
+ * or more trace files:
+ * 
+ * <pre>
+ * java com.triggertrap.seekarc.geometry.TouchTraceReplayer 16 drag1.csv drag2.csv
+ * </pre>
+ * 
+ * Traces are mapped onto a 1080 pixel square full circle arc unless a
+ * geometry is supplied. This is a development harness and lives with the
+ * tests so it isn't part of the library.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class TouchTraceReplayer {
+
+	/**
+	 * Prediction error over one replay, all angles in degrees.
+	 */
+	public static class Result {
+
+		/**
+		 * The number of samples with a known future position
+		 */
+		public int samples;
+		public double meanError;
+		public double rmsError;
+		public double maxError;
+
+		/**
+		 * The mean error of drawing at the newest sample
+		 */
+		public double baselineMeanError;
+
+		/**
+		 * The largest error of drawing at the newest sample
+		 */
+		public double baselineMaxError;
+
+		@Override
+		public String toString() {
+			return String.format(
+					"samples=%d mean=%.3f rms=%.3f max=%.3f baselineMean=%.3f baselineMax=%.3f",
+					samples, meanError, rmsError, maxError, baselineMeanError,
+					baselineMaxError);
+		}
+	}
+
+	private final ArcGeometry mGeometry;
+	private final TouchPredictor mPredictor = new TouchPredictor();
+
+	public TouchTraceReplayer() {
+		this(defaultGeometry());
+	}
+
+	/**
+	 * @param geometry
+	 *            The arc the trace was recorded on
+	 */
+	public TouchTraceReplayer(ArcGeometry geometry) {
+		mGeometry = geometry;
+	}
+
+	private static ArcGeometry defaultGeometry() {
+		ArcGeometry geometry = new ArcGeometry();
+		geometry.setSize(1080, 1080, 0);
+		return geometry;
+	}
+
+	/**
+	 * Replays a trace and measures the prediction error.
+	 * 
+	 * @param trace
+	 *            The recorded touch samples
+	 * @param lookaheadMs
+	 *            How far ahead to predict
+	 * @return The error statistics
+	 */
+	public Result replay(TouchTrace trace, long lookaheadMs) {
+		final int size = trace.size();
+		// Unwrap the whole trace first so future positions can be looked up
+		final double[] angles = new double[size];
+		for (int i = 0; i < size; i++) {
+			double angle = mGeometry.getTouchDegrees(trace.getX(i),
+					trace.getY(i));
+			angles[i] = i == 0 ? angle : angles[i - 1]
+					+ AngularVelocityTracker.wrapDelta(angle - angles[i - 1]);
+		}
+
+		Result result = new Result();
+		double sumError = 0;
+		double sumSquaredError = 0;
+		double sumBaselineError = 0;
+		mPredictor.reset();
+		for (int i = 0; i < size; i++) {
+			mPredictor.addSample(trace.getTime(i), angles[i]);
+			final long target = trace.getTime(i) + lookaheadMs;
+			if (target > trace.getTime(size - 1)) {
+				break;
+			}
+
+			final double actual = angleAt(trace, angles, i, target);
+			final double predicted = angles[i]
+					+ mPredictor.predictOffset(lookaheadMs);
+			final double error = Math.abs(predicted - actual);
+			final double baselineError = Math.abs(angles[i] - actual);
+
+			result.samples++;
+			sumError += error;
+			sumSquaredError += error * error;
+			sumBaselineError += baselineError;
+			result.maxError = Math.max(result.maxError, error);
+			result.baselineMaxError = Math.max(result.baselineMaxError,
+					baselineError);
+		}
+
+		if (result.samples > 0) {
+			result.meanError = sumError / result.samples;
+			result.rmsError = Math.sqrt(sumSquaredError / result.samples);
+			result.baselineMeanError = sumBaselineError / result.samples;
+		}
+		return result;
+	}
+
+	/**
+	 * Linearly interpolates the unwrapped angle at a time at or after sample
+	 * from.
+	 */
+	private static double angleAt(TouchTrace trace, double[] angles, int from,
+			long time) {
+		int i = from;
+		while (i + 1 < angles.length && trace.getTime(i + 1) < time) {
+			i++;
+		}
+		if (i + 1 >= angles.length) {
+			return angles[angles.length - 1];
+		}
+		final long t0 = trace.getTime(i);
+		final long t1 = trace.getTime(i + 1);
+		if (t1 == t0) {
+			return angles[i + 1];
+		}
+		final double f = (double) (time - t0) / (t1 - t0);
+		return angles[i] + (angles[i + 1] - angles[i]) * f;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: TouchTraceReplayer <lookaheadMs> <trace>...");
+			System.exit(1);
+		}
+		final long lookaheadMs = Long.parseLong(args[0]);
+		TouchTraceReplayer replayer = new TouchTraceReplayer();
+		for (int i = 1; i < args.length; i++) {
+			Reader reader = new FileReader(args[i]);
+			try {
+				System.out.println(args[i] + ": "
+						+ replayer.replay(TouchTrace.read(reader), lookaheadMs));
+			} finally {
+				reader.close();
+			}
+		}
+	}
+}
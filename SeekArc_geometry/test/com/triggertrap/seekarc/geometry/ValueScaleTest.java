@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * 
+ * ValueScaleTest.java
+ * 
+ * Checks how a value scale and the arc's max and ticks work together.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class ValueScaleTest {
+
+	// Shutter speeds as 1/x of a second
+	private static final int[] SHUTTER = { 0, 15, 30, 60, 125, 250, 500, 1000 };
+
+	@Test
+	public void scaleSetsTheMax() {
+		final ArcGeometry geometry = newGeometry();
+		geometry.setValueScale(ValueScale.table(SHUTTER));
+		assertEquals(1000, geometry.getMax());
+		assertEquals(1000, geometry.getProgressForAngle(360));
+		// The same max is fine
+		geometry.setMax(1000);
+	}
+
+	@Test
+	public void setMaxWithAScaleIsRejected() {
+		final ArcGeometry geometry = newGeometry();
+		geometry.setValueScale(ValueScale.log(1000));
+		try {
+			geometry.setMax(500);
+			fail("setMax accepted a max the scale can't reach");
+		} catch (IllegalStateException expected) {
+		}
+		assertEquals(1000, geometry.getMax());
+	}
+
+	@Test
+	public void clearingTheScaleAllowsAnyMax() {
+		final ArcGeometry geometry = newGeometry();
+		geometry.setValueScale(ValueScale.log(1000));
+		geometry.setValueScale(null);
+		geometry.setMax(500);
+		assertEquals(500, geometry.getProgressForAngle(360));
+	}
+
+	@Test
+	public void tableInterpolatesBetweenEntries() {
+		final ValueScale scale = ValueScale.table(SHUTTER);
+		final double step = 1d / (SHUTTER.length - 1);
+		assertEquals(60, scale.progressForFraction(3 * step), 1e-9);
+		assertEquals(92.5, scale.progressForFraction(3.5 * step), 1e-9);
+	}
+
+	@Test
+	public void ticksOnTheEntriesSnapToThem() {
+		final ArcGeometry geometry = newGeometry();
+		geometry.setValueScale(ValueScale.table(SHUTTER));
+		geometry.setTickCount(SHUTTER.length - 1);
+		final double step = 360d / (SHUTTER.length - 1);
+		for (int i = 0; i < SHUTTER.length - 1; i++) {
+			final int between = geometry.getProgressForAngle((i + 0.4) * step);
+			assertEquals(SHUTTER[i], geometry.snapProgress(between));
+		}
+	}
+
+	private static ArcGeometry newGeometry() {
+		final ArcGeometry geometry = new ArcGeometry();
+		geometry.setSize(1080, 1080, 0);
+		return geometry;
+	}
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc;
+
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.SweepGradient;
+
+import com.triggertrap.seekarc.geometry.ArcGeometry;
+
+/**
+ * 
+ * ArcGradient.java
+ * 
+ * A sweep gradient that follows the arc from its start to the end of the
+ * sweep. The shader is only built again when the arc's centre, the sweep
+ * or the colours change; turning the arc just rotates the shader through a
+ * reused local matrix.
+ * 
+ * @author Neil Davies
+ * 
+ */
+final class ArcGradient {
+
+	private final int[] mColors;
+	private final float[] mStops;
+	private final float[] mPositions;
+	private final Matrix mMatrix = new Matrix();
+	private SweepGradient mShader;
+	private float mCenterX;
+	private float mCenterY;
+	private int mSweepAngle;
+	private int mArcStart;
+
+	/**
+	 * @param colors
+	 *            The colours along the sweep, at least two
+	 * @param stops
+	 *            Where each colour sits along the sweep, 0..1 and
+	 *            increasing, or null to space them evenly
+	 */
+	ArcGradient(int[] colors, float[] stops) {
+		if (colors.length < 2) {
+			throw new IllegalArgumentException("Need at least two colours");
+		}
+		if (stops != null && stops.length != colors.length) {
+			throw new IllegalArgumentException(
+					"Need a stop for each colour");
+		}
+		if (stops != null) {
+			for (int i = 0; i < stops.length; i++) {
+				if (stops[i] < 0 || stops[i] > 1
+						|| (i > 0 && stops[i] < stops[i - 1])) {
+					throw new IllegalArgumentException(
+							"Stops must be increasing and within 0..1");
+				}
+			}
+		}
+		mColors = colors.clone();
+		mStops = (stops != null) ? stops.clone() : null;
+		mPositions = new float[colors.length];
+	}
+
+	/**
+	 * Puts the shader on the paint, building or rotating it first if the
+	 * arc has changed since last time.
+	 */
+	void apply(Paint paint, ArcGeometry geometry, RectF arcRect) {
+		final float centerX = arcRect.centerX();
+		final float centerY = arcRect.centerY();
+		final int sweepAngle = geometry.getSweepAngle();
+		final int arcStart = geometry.getArcStart();
+
+		if (mShader == null || centerX != mCenterX || centerY != mCenterY
+				|| sweepAngle != mSweepAngle) {
+			// The gradient runs round the whole circle from 3 o'clock, so
+			// squeeze the stops into the sweep
+			final int last = mColors.length - 1;
+			for (int i = 0; i <= last; i++) {
+				final float stop = (mStops != null) ? mStops[i] : (float) i
+						/ last;
+				mPositions[i] = stop * sweepAngle / 360f;
+			}
+			mShader = new SweepGradient(centerX, centerY, mColors, mPositions);
+			mCenterX = centerX;
+			mCenterY = centerY;
+			mSweepAngle = sweepAngle;
+			mMatrix.setRotate(arcStart, centerX, centerY);
+			mShader.setLocalMatrix(mMatrix);
+			mArcStart = arcStart;
+		} else if (arcStart != mArcStart) {
+			mMatrix.setRotate(arcStart, centerX, centerY);
+			mShader.setLocalMatrix(mMatrix);
+			mArcStart = arcStart;
+		}
+
+		if (paint.getShader() != mShader) {
+			paint.setShader(mShader);
+		}
+	}
+}
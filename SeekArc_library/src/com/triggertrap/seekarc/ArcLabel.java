@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+/**
+ * 
+ * ArcLabel.java
+ * 
+ * The text drawn in the centre of the arc. The value is formatted into a
+ * reused char array only when it changes, digit widths are measured once
+ * per text size, so drawing the label each frame allocates nothing.
+ * 
+ * @author Neil Davies
+ * 
+ */
+final class ArcLabel {
+
+	/**
+	 * The size of the buffer handed to a {@link SeekArc.LabelFormatter}
+	 */
+	static final int BUFFER_SIZE = 32;
+
+	private static final String DIGITS = "0123456789";
+
+	static final SeekArc.LabelFormatter DEFAULT_FORMATTER = new SeekArc.LabelFormatter() {
+		@Override
+		public int format(long value, char[] buffer) {
+			return formatLong(value, buffer);
+		}
+	};
+
+	private final Paint mPaint;
+	private final char[] mText = new char[BUFFER_SIZE];
+	private final float[] mDigitWidths = new float[DIGITS.length()];
+	private final Paint.FontMetrics mFontMetrics = new Paint.FontMetrics();
+	private SeekArc.LabelFormatter mFormatter = DEFAULT_FORMATTER;
+	private int mLength;
+	private long mValue;
+	private boolean mFormatted = false;
+	private boolean mMeasured = false;
+	private float mWidth;
+	private float mBaselineOffset;
+	private float mHalfHeight;
+
+	/**
+	 * @param paint
+	 *            The paint for the text, owned by this from now on
+	 */
+	ArcLabel(Paint paint) {
+		mPaint = paint;
+		mPaint.setTextAlign(Paint.Align.LEFT);
+	}
+
+	Paint getPaint() {
+		return mPaint;
+	}
+
+	void setFormatter(SeekArc.LabelFormatter formatter) {
+		mFormatter = formatter != null ? formatter : DEFAULT_FORMATTER;
+		mFormatted = false;
+	}
+
+	/**
+	 * Call after changing the text size or typeface of the paint.
+	 */
+	void invalidateMetrics() {
+		mMeasured = false;
+	}
+
+	/**
+	 * Formats the value if it differs from the one already formatted.
+	 * 
+	 * @return True if the text was formatted again
+	 */
+	boolean setValue(long value) {
+		if (mFormatted && value == mValue) {
+			return false;
+		}
+		mValue = value;
+		mFormatted = true;
+		final int length = mFormatter.format(value, mText);
+		mLength = length < 0 ? 0 : Math.min(length, BUFFER_SIZE);
+		if (mMeasured) {
+			mWidth = measureText();
+		}
+		return true;
+	}
+
+	float getHalfWidth() {
+		ensureMeasured();
+		return mWidth / 2f;
+	}
+
+	float getHalfHeight() {
+		ensureMeasured();
+		return mHalfHeight;
+	}
+
+	/**
+	 * Draws the text centred on the given point.
+	 */
+	void draw(Canvas canvas, float cx, float cy) {
+		if (mLength == 0) {
+			return;
+		}
+		ensureMeasured();
+		canvas.drawText(mText, 0, mLength, cx - mWidth / 2f,
+				cy + mBaselineOffset, mPaint);
+	}
+
+	private void ensureMeasured() {
+		if (mMeasured) {
+			return;
+		}
+		mPaint.getTextWidths(DIGITS, mDigitWidths);
+		mPaint.getFontMetrics(mFontMetrics);
+		// Centre the digits' height, ignoring the space below the baseline
+		mBaselineOffset = -(mFontMetrics.ascent + mFontMetrics.descent) / 2f;
+		mHalfHeight = (mFontMetrics.bottom - mFontMetrics.top) / 2f;
+		mMeasured = true;
+		mWidth = measureText();
+	}
+
+	/**
+	 * Adds up the width of the text from the digit widths, only measuring
+	 * characters that aren't digits.
+	 */
+	private float measureText() {
+		float width = 0;
+		for (int i = 0; i < mLength; i++) {
+			final char c = mText[i];
+			if (c >= '0' && c <= '9') {
+				width += mDigitWidths[c - '0'];
+			} else {
+				width += mPaint.measureText(mText, i, 1);
+			}
+		}
+		return width;
+	}
+
+	/**
+	 * Writes the decimal digits of the value, with a leading minus sign if
+	 * negative, to the start of the buffer.
+	 * 
+	 * @return The number of characters written
+	 */
+	static int formatLong(long value, char[] buffer) {
+		int i = buffer.length;
+		// Work with the negative value so Long.MIN_VALUE doesn't overflow
+		long remaining = value > 0 ? -value : value;
+		do {
+			buffer[--i] = (char) ('0' - (remaining % 10));
+			remaining /= 10;
+		} while (remaining != 0);
+		if (value < 0) {
+			buffer[--i] = '-';
+		}
+		final int length = buffer.length - i;
+		System.arraycopy(buffer, i, buffer, 0, length);
+		return length;
+	}
+}
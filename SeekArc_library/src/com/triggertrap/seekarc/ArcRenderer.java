@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+
+import com.triggertrap.seekarc.geometry.ArcGeometry;
+
+/**
+ * 
+ * ArcRenderer.java
+ * 
+ * The drawing shared by SeekArc, SeekArcDrawable and ConcentricSeekArc.
+ * Draws the background arc, the progress arc and the thumb for a laid out
+ * ArcGeometry, and works out what to invalidate when the progress moves.
+ * 
+ * @author Neil Davies
+ * 
+ */
+final class ArcRenderer {
+
+	private ArcRenderer() {
+	}
+
+	/**
+	 * Draws the arc. Anti-clockwise arcs are mirrored about the centre of
+	 * the arc rect; the canvas is left as it was found.
+	 * 
+	 * @param arcPaint
+	 *            The background arc paint, or null if the background arc has
+	 *            already been drawn
+	 * @param ticks
+	 *            Tick marks drawn with the background arc, or null for none
+	 * @param thumb
+	 *            The thumb, or null to leave it out
+	 * @param lowerThumb
+	 *            The thumb for the lower end of a range, or null
+	 */
+	static void draw(Canvas canvas, ArcGeometry geometry, RectF arcRect,
+			Paint arcPaint, ArcTicks ticks, Paint progressPaint,
+			Drawable thumb, Drawable lowerThumb) {
+		final int saveCount = canvas.save();
+		if (!geometry.isClockwise()) {
+			canvas.scale(-1, 1, arcRect.centerX(), arcRect.centerY());
+		}
+
+		// Draw the arcs
+		final int arcStart = geometry.getArcStart();
+		if (arcPaint != null) {
+			canvas.drawArc(arcRect, arcStart, geometry.getSweepAngle(), false,
+					arcPaint);
+			if (ticks != null) {
+				ticks.draw(canvas, geometry);
+			}
+		}
+		final float lowerSweep = geometry.getLowerSweep();
+		canvas.drawArc(arcRect, arcStart + lowerSweep,
+				geometry.getProgressSweep() - lowerSweep, false, progressPaint);
+
+		if (lowerThumb != null) {
+			final int dx = geometry.getTranslateX()
+					- geometry.getLowerThumbXPos();
+			final int dy = geometry.getTranslateY()
+					- geometry.getLowerThumbYPos();
+			canvas.translate(dx, dy);
+			lowerThumb.draw(canvas);
+			canvas.translate(-dx, -dy);
+		}
+		if (thumb != null) {
+			// Draw the thumb nail
+			canvas.translate(geometry.getTranslateX() - geometry.getThumbX(),
+					geometry.getTranslateY() - geometry.getThumbY());
+			thumb.draw(canvas);
+		}
+		canvas.restoreToCount(saveCount);
+	}
+
+	/**
+	 * Draws only the thumb, for when thumbs go on top of other arcs.
+	 */
+	static void drawThumb(Canvas canvas, ArcGeometry geometry, Drawable thumb) {
+		final int saveCount = canvas.save();
+		canvas.translate(geometry.getThumbCenterX(), geometry.getThumbCenterY());
+		thumb.draw(canvas);
+		canvas.restoreToCount(saveCount);
+	}
+
+	/**
+	 * Works out the box covering a move of one end of the progress arc: the
+	 * arc between the old and new sweep, and the thumb at its old and new
+	 * centre.
+	 * 
+	 * @param outset
+	 *            How far to grow the arc's box, e.g. half the stroke width
+	 * @param thumb
+	 *            The thumb's bounds about its centre, or null if the thumb
+	 *            isn't drawn
+	 * @param out
+	 *            Receives left, top, right and bottom. Left is greater than
+	 *            right if the arc isn't laid out.
+	 * @return False if neither the sweep nor the thumb moved
+	 */
+	static boolean getSweepChangeBounds(ArcGeometry geometry, float oldSweep,
+			float sweep, float oldThumbX, float oldThumbY, float thumbX,
+			float thumbY, float outset, Rect thumb, float[] out) {
+		if (sweep == oldSweep && thumbX == oldThumbX && thumbY == oldThumbY) {
+			return false;
+		}
+		geometry.getSweepBounds(Math.min(oldSweep, sweep),
+				Math.max(oldSweep, sweep), outset, out);
+		if (thumb != null && out[0] <= out[2]) {
+			out[0] = Math.min(out[0], Math.min(oldThumbX, thumbX) + thumb.left - 1);
+			out[1] = Math.min(out[1], Math.min(oldThumbY, thumbY) + thumb.top - 1);
+			out[2] = Math.max(out[2], Math.max(oldThumbX, thumbX) + thumb.right + 1);
+			out[3] = Math.max(out[3],
+					Math.max(oldThumbY, thumbY) + thumb.bottom + 1);
+		}
+		return true;
+	}
+
+	/**
+	 * Draws only the background arc and ticks, mirrored for anti-clockwise
+	 * arcs.
+	 */
+	static void drawTrack(Canvas canvas, ArcGeometry geometry, RectF arcRect,
+			Paint arcPaint, ArcTicks ticks) {
+		final int saveCount = canvas.save();
+		if (!geometry.isClockwise()) {
+			canvas.scale(-1, 1, arcRect.centerX(), arcRect.centerY());
+		}
+		canvas.drawArc(arcRect, geometry.getArcStart(),
+				geometry.getSweepAngle(), false, arcPaint);
+		if (ticks != null) {
+			ticks.draw(canvas, geometry);
+		}
+		canvas.restoreToCount(saveCount);
+	}
+}
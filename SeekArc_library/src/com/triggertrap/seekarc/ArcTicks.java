@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import com.triggertrap.seekarc.geometry.ArcGeometry;
+
+/**
+ * 
+ * ArcTicks.java
+ * 
+ * Tick marks across the arc. The line for every tick is worked out once
+ * into a single float array when the arc changes and drawn with one
+ * drawLines call, so a dial with hundreds of ticks costs one draw call and
+ * no trigonometry per frame.
+ * 
+ * @author Neil Davies
+ * 
+ */
+final class ArcTicks {
+
+	private static final float[] NO_LINES = new float[0];
+
+	private final Paint mPaint;
+	private float mLength;
+	private float[] mLines = NO_LINES;
+	private int mFloats;
+	private boolean mDirty = true;
+
+	/**
+	 * @param paint
+	 *            The paint for the tick lines, owned by this from now on
+	 * @param length
+	 *            How long each tick is, centred on the arc
+	 */
+	ArcTicks(Paint paint, float length) {
+		mPaint = paint;
+		mLength = length;
+	}
+
+	/**
+	 * Marks the tick lines as out of date, to be worked out again before
+	 * the next draw.
+	 */
+	void invalidate() {
+		mDirty = true;
+	}
+
+	void draw(Canvas canvas, ArcGeometry geometry) {
+		if (mDirty) {
+			final int floats = geometry.getTickLineFloats();
+			if (mLines.length < floats) {
+				mLines = new float[floats];
+			}
+			mFloats = geometry.getTickLines(-mLength / 2, mLength / 2, mLines);
+			mDirty = false;
+		}
+		if (mFloats > 0) {
+			canvas.drawLines(mLines, 0, mFloats, mPaint);
+		}
+	}
+
+	Paint getPaint() {
+		return mPaint;
+	}
+
+	float getLength() {
+		return mLength;
+	}
+
+	void setLength(float length) {
+		mLength = length;
+		mDirty = true;
+	}
+}
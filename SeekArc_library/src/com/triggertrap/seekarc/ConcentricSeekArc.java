@@ -0,0 +1,696 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc;
+
+import java.util.ArrayList;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.triggertrap.seekarc.geometry.ArcGeometry;
+import com.triggertrap.seekarc.geometry.ArcTouchTracker;
+
+/**
+ * 
+ * ConcentricSeekArc.java
+ * 
+ * Several SeekArcs drawn as concentric rings in a single view. The rings
+ * share the start angle, sweep, rotation and direction; each has its own
+ * inset, widths, colours, max, progress and thumb. All rings are drawn in
+ * one pass and a touch is routed to the ring nearest to it. Each finger
+ * drags its own ring, so several rings can be moved at once.
+ * 
+ * The attributes of the view (or its style) set the defaults for every
+ * ring added with {@link #addRing(int)}.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class ConcentricSeekArc extends View {
+
+	private static int INVALID_PROGRESS_VALUE = ArcGeometry.INVALID_PROGRESS_VALUE;
+	private static final int NO_RING = -1;
+
+	/**
+	 * How many fingers can drag rings at the same time
+	 */
+	private static final int MAX_POINTERS = 10;
+
+	private static final OnRingChangeListener[] NO_LISTENERS = new OnRingChangeListener[0];
+
+	public interface OnRingChangeListener {
+
+		/**
+		 * Notification that the progress of a ring has changed.
+		 * 
+		 * @param ring
+		 *            The index of the ring, in the order rings were added
+		 * @see SeekArc.OnSeekArcChangeListener#onProgressChanged(SeekArc,
+		 *      int, boolean)
+		 */
+		void onProgressChanged(ConcentricSeekArc seekArc, int ring,
+				int progress, boolean fromUser);
+
+		/**
+		 * Notification that the user has started dragging a ring.
+		 */
+		void onStartTrackingTouch(ConcentricSeekArc seekArc, int ring);
+
+		/**
+		 * Notification that the user has stopped dragging a ring.
+		 */
+		void onStopTrackingTouch(ConcentricSeekArc seekArc, int ring);
+	}
+
+	/**
+	 * One ring: its own geometry, laid out inside the view padding plus the
+	 * ring's inset, and its own paints and thumb. What its listeners have
+	 * been told is kept by the dispatcher, one channel per ring.
+	 */
+	private static final class Ring {
+		final ArcGeometry geometry = new ArcGeometry();
+		final ArcTouchTracker tracker = new ArcTouchTracker(geometry);
+		final RectF rect = new RectF();
+		int inset;
+		int progress;
+		Paint arcPaint;
+		Paint progressPaint;
+		Drawable thumb;
+		boolean pressed;
+	}
+
+	private SeekArcStyle mStyle;
+	private boolean mTouchInside;
+	private boolean mEnabled;
+	private int mStartAngle;
+	private int mSweepAngle;
+	private int mRotation;
+	private boolean mClockwise;
+
+	private final ArrayList<Ring> mRings = new ArrayList<Ring>();
+	private final float[] mDirtyBounds = new float[4];
+
+	// The view's drawable state with pressed added, for a dragged ring's thumb
+	private int[] mPressedState;
+
+	// Which pointer is dragging which ring, one slot per finger
+	private final int[] mPointerIds = new int[MAX_POINTERS];
+	private final int[] mPointerRings = new int[MAX_POINTERS];
+	private int mPointerCount;
+
+	private OnRingChangeListener mOnRingChangeListener;
+	private final ListenerArray<OnRingChangeListener> mListeners = new ListenerArray<OnRingChangeListener>(
+			NO_LISTENERS);
+	private final ProgressDispatcher mDispatcher = new ProgressDispatcher(
+			new ProgressDispatcher.Target() {
+				@Override
+				public void deliver(int channel, long value, boolean fromUser) {
+					deliverProgressChanged(channel, (int) value, fromUser);
+				}
+			}, 0);
+
+	public ConcentricSeekArc(Context context) {
+		super(context);
+		init(SeekArcStyle.obtain(context, null, 0));
+	}
+
+	public ConcentricSeekArc(Context context, AttributeSet attrs) {
+		super(context, attrs);
+		init(SeekArcStyle.obtain(context, attrs, R.attr.seekArcStyle));
+	}
+
+	public ConcentricSeekArc(Context context, AttributeSet attrs, int defStyle) {
+		super(context, attrs, defStyle);
+		init(SeekArcStyle.obtain(context, attrs, defStyle));
+	}
+
+	public ConcentricSeekArc(Context context, SeekArcStyle style) {
+		super(context);
+		init(style);
+	}
+
+	private void init(SeekArcStyle style) {
+		mStyle = style;
+		mTouchInside = style.touchInside;
+		mEnabled = style.enabled;
+		mStartAngle = style.startAngle;
+		mSweepAngle = style.sweepAngle;
+		mRotation = style.rotation;
+		mClockwise = style.clockwise;
+	}
+
+	/**
+	 * Adds a ring with the style's widths, colours, max and progress.
+	 * 
+	 * @param inset
+	 *            How far in from the view's padding the ring is drawn, in
+	 *            pixels
+	 * @return The index of the new ring
+	 */
+	public int addRing(int inset) {
+		return addRing(inset, mStyle.arcWidth, mStyle.progressWidth,
+				mStyle.getArcColor(), mStyle.getProgressColor());
+	}
+
+	/**
+	 * Adds a ring.
+	 * 
+	 * @param inset
+	 *            How far in from the view's padding the ring is drawn, in
+	 *            pixels
+	 * @return The index of the new ring
+	 */
+	public int addRing(int inset, int arcWidth, int progressWidth,
+			int arcColor, int progressColor) {
+		final Ring ring = new Ring();
+		ring.inset = inset;
+		ring.progress = mStyle.progress;
+		ring.arcPaint = new Paint(mStyle.arcPaint);
+		ring.arcPaint.setStrokeWidth(arcWidth);
+		ring.arcPaint.setColor(arcColor);
+		ring.progressPaint = new Paint(mStyle.progressPaint);
+		ring.progressPaint.setStrokeWidth(progressWidth);
+		ring.progressPaint.setColor(progressColor);
+		// Each ring has its own thumb so only the dragged one looks pressed
+		ring.thumb = mStyle.newThumb(getResources());
+		ring.thumb.setState(getDrawableState());
+
+		final ArcGeometry geometry = ring.geometry;
+		geometry.setMax(mStyle.max);
+		geometry.setStartAngle(mStartAngle);
+		geometry.setSweepAngle(mSweepAngle);
+		geometry.setRotation(mRotation);
+		geometry.setClockwise(mClockwise);
+		geometry.setProgress(ring.progress);
+
+		mRings.add(ring);
+		mDispatcher.setChannelCount(mRings.size());
+		if (getWidth() > 0) {
+			layoutRing(ring, getWidth(), getHeight());
+		}
+		invalidate();
+		return mRings.size() - 1;
+	}
+
+	/**
+	 * Removes every ring. Rings being dragged are let go first, so their
+	 * listeners see the final value and onStopTrackingTouch.
+	 */
+	public void removeAllRings() {
+		while (mPointerCount > 0) {
+			onPointerUp(mPointerIds[mPointerCount - 1]);
+		}
+		mDispatcher.flushAll();
+		mRings.clear();
+		mDispatcher.setChannelCount(0);
+		invalidate();
+	}
+
+	public int getRingCount() {
+		return mRings.size();
+	}
+
+	@Override
+	protected void onDraw(Canvas canvas) {
+		final ArrayList<Ring> rings = mRings;
+		final int count = rings.size();
+		for (int i = 0; i < count; i++) {
+			final Ring ring = rings.get(i);
+			ArcRenderer.draw(canvas, ring.geometry, ring.rect, ring.arcPaint,
+					null, ring.progressPaint, null, null);
+		}
+		if (mEnabled) {
+			// Thumbs go on top of every ring
+			for (int i = 0; i < count; i++) {
+				final Ring ring = rings.get(i);
+				ArcRenderer.drawThumb(canvas, ring.geometry, ring.thumb);
+			}
+		}
+	}
+
+	@Override
+	protected void onDetachedFromWindow() {
+		super.onDetachedFromWindow();
+		// Nothing held back for a frame is lost if the frame never comes
+		mDispatcher.flushAll();
+	}
+
+	@Override
+	protected void onLayout(boolean changed, int left, int top, int right,
+			int bottom) {
+		super.onLayout(changed, left, top, right, bottom);
+		final int width = right - left;
+		final int height = bottom - top;
+		for (int i = mRings.size() - 1; i >= 0; i--) {
+			layoutRing(mRings.get(i), width, height);
+		}
+	}
+
+	private void layoutRing(Ring ring, int width, int height) {
+		final int inset = ring.inset;
+		final ArcGeometry geometry = ring.geometry;
+		if (!geometry.setSize(width, height, getPaddingLeft() + inset,
+				getPaddingTop() + inset, getPaddingRight() + inset,
+				getPaddingBottom() + inset)) {
+			return;
+		}
+		ring.rect.set(geometry.getArcLeft(), geometry.getArcTop(),
+				geometry.getArcRight(), geometry.getArcBottom());
+		geometry.setTouchInside(mTouchInside, mStyle.thumbHalfWidth,
+				mStyle.thumbHalfHeight);
+	}
+
+	@Override
+	public boolean onTouchEvent(MotionEvent event) {
+		if (!mEnabled) {
+			return false;
+		}
+		switch (event.getActionMasked()) {
+			case MotionEvent.ACTION_DOWN:
+				mPointerCount = 0;
+				if (!onPointerDown(event, event.getActionIndex())) {
+					return false;
+				}
+				getParent().requestDisallowInterceptTouchEvent(true);
+				break;
+			case MotionEvent.ACTION_POINTER_DOWN:
+				onPointerDown(event, event.getActionIndex());
+				break;
+			case MotionEvent.ACTION_MOVE:
+				for (int i = 0; i < mPointerCount; i++) {
+					final int index = event.findPointerIndex(mPointerIds[i]);
+					if (index >= 0) {
+						updateOnTouch(mPointerRings[i], event.getX(index),
+								event.getY(index));
+					}
+				}
+				break;
+			case MotionEvent.ACTION_POINTER_UP:
+				onPointerUp(event.getPointerId(event.getActionIndex()));
+				break;
+			case MotionEvent.ACTION_UP:
+			case MotionEvent.ACTION_CANCEL:
+				while (mPointerCount > 0) {
+					onPointerUp(mPointerIds[mPointerCount - 1]);
+				}
+				getParent().requestDisallowInterceptTouchEvent(false);
+				break;
+		}
+		return true;
+	}
+
+	/**
+	 * Gives a new pointer the ring under it, unless another finger already
+	 * has that ring.
+	 * 
+	 * @return True if the pointer took a ring
+	 */
+	private boolean onPointerDown(MotionEvent event, int index) {
+		if (mPointerCount == MAX_POINTERS) {
+			return false;
+		}
+		final float x = event.getX(index);
+		final float y = event.getY(index);
+		final int ring = findRing(x, y);
+		if (ring == NO_RING) {
+			return false;
+		}
+		for (int i = 0; i < mPointerCount; i++) {
+			if (mPointerRings[i] == ring) {
+				return false;
+			}
+		}
+		mPointerIds[mPointerCount] = event.getPointerId(index);
+		mPointerRings[mPointerCount] = ring;
+		mPointerCount++;
+		mRings.get(ring).tracker.reset();
+		setRingPressed(ring, true);
+		onStartTrackingTouch(ring);
+		updateOnTouch(ring, x, y);
+		return true;
+	}
+
+	private void onPointerUp(int pointerId) {
+		for (int i = 0; i < mPointerCount; i++) {
+			if (mPointerIds[i] != pointerId) {
+				continue;
+			}
+			final int ring = mPointerRings[i];
+			// Keep the slots packed by moving the last one into the gap
+			mPointerCount--;
+			mPointerIds[i] = mPointerIds[mPointerCount];
+			mPointerRings[i] = mPointerRings[mPointerCount];
+			setRingPressed(ring, false);
+			onStopTrackingTouch(ring);
+			return;
+		}
+	}
+
+	/**
+	 * Finds the ring whose radius is closest to the touch. Touches inside
+	 * the innermost ring's ignore radius don't pick a ring, the same as a
+	 * SeekArc's touch inside setting.
+	 * 
+	 * @return The ring index, or {@link #NO_RING}
+	 */
+	private int findRing(float x, float y) {
+		final ArrayList<Ring> rings = mRings;
+		final int count = rings.size();
+		if (count == 0) {
+			return NO_RING;
+		}
+
+		final ArcGeometry first = rings.get(0).geometry;
+		final float dx = x - first.getTranslateX();
+		final float dy = y - first.getTranslateY();
+		final float touchRadius = (float) Math.sqrt(dx * dx + dy * dy);
+
+		int nearest = NO_RING;
+		float nearestDistance = Float.MAX_VALUE;
+		int innermost = NO_RING;
+		for (int i = 0; i < count; i++) {
+			final ArcGeometry geometry = rings.get(i).geometry;
+			final float distance = Math.abs(touchRadius
+					- geometry.getArcRadius());
+			if (distance < nearestDistance) {
+				nearestDistance = distance;
+				nearest = i;
+			}
+			if (innermost == NO_RING
+					|| geometry.getArcRadius() < rings.get(innermost).geometry
+							.getArcRadius()) {
+				innermost = i;
+			}
+		}
+
+		if (rings.get(innermost).geometry.isTouchIgnored(x, y)) {
+			return NO_RING;
+		}
+		return nearest;
+	}
+
+	/**
+	 * Follows the ring's finger with its touch tracker, the same as a
+	 * SeekArc's thumb, so the progress pins at the ends rather than jumping
+	 * across the gap.
+	 */
+	private void updateOnTouch(int ring, float x, float y) {
+		updateProgress(ring, mRings.get(ring).tracker.addTouch(x, y), true);
+	}
+
+	private void updateProgress(int index, int progress, boolean fromUser) {
+		if (progress == INVALID_PROGRESS_VALUE) {
+			return;
+		}
+		final Ring ring = mRings.get(index);
+		final ArcGeometry geometry = ring.geometry;
+		final int max = geometry.getMax();
+		progress = (progress > max) ? max : progress;
+		progress = (progress < 0) ? 0 : progress;
+		ring.progress = progress;
+
+		if (!mListeners.isEmpty()) {
+			mDispatcher.dispatch(index, progress, fromUser);
+		}
+
+		final float oldSweep = geometry.getProgressSweep();
+		final float oldThumbX = geometry.getThumbCenterX();
+		final float oldThumbY = geometry.getThumbCenterY();
+
+		geometry.setProgress(progress);
+
+		// Half the wider stroke plus a pixel for anti-aliasing
+		final float outset = Math.max(ring.arcPaint.getStrokeWidth(),
+				ring.progressPaint.getStrokeWidth()) / 2f + 1;
+		if (ArcRenderer.getSweepChangeBounds(geometry, oldSweep,
+				geometry.getProgressSweep(), oldThumbX, oldThumbY,
+				geometry.getThumbCenterX(), geometry.getThumbCenterY(),
+				outset, mEnabled ? ring.thumb.getBounds() : null, mDirtyBounds)) {
+			invalidateDirtyBounds();
+		}
+	}
+
+	private void invalidateDirtyBounds() {
+		if (mDirtyBounds[0] <= mDirtyBounds[2]
+				&& mDirtyBounds[1] <= mDirtyBounds[3]) {
+			invalidate((int) Math.floor(mDirtyBounds[0]),
+					(int) Math.floor(mDirtyBounds[1]),
+					(int) Math.ceil(mDirtyBounds[2]),
+					(int) Math.ceil(mDirtyBounds[3]));
+		} else {
+			// Not laid out yet
+			invalidate();
+		}
+	}
+
+	private void setRingPressed(int index, boolean pressed) {
+		final Ring ring = mRings.get(index);
+		ring.pressed = pressed;
+		ring.thumb.setState(pressed ? pressedState() : getDrawableState());
+		// Only the thumb changes
+		final Rect bounds = ring.thumb.getBounds();
+		final float x = ring.geometry.getThumbCenterX();
+		final float y = ring.geometry.getThumbCenterY();
+		invalidate((int) Math.floor(x + bounds.left),
+				(int) Math.floor(y + bounds.top),
+				(int) Math.ceil(x + bounds.right),
+				(int) Math.ceil(y + bounds.bottom));
+	}
+
+	private int[] pressedState() {
+		if (mPressedState == null) {
+			final int[] state = getDrawableState();
+			mPressedState = new int[state.length + 1];
+			System.arraycopy(state, 0, mPressedState, 0, state.length);
+			mPressedState[state.length] = android.R.attr.state_pressed;
+		}
+		return mPressedState;
+	}
+
+	@Override
+	protected void drawableStateChanged() {
+		super.drawableStateChanged();
+		mPressedState = null;
+		final int[] state = getDrawableState();
+		for (int i = mRings.size() - 1; i >= 0; i--) {
+			final Ring ring = mRings.get(i);
+			ring.thumb.setState(ring.pressed ? pressedState() : state);
+		}
+		invalidate();
+	}
+
+	private void deliverProgressChanged(int ring, int progress,
+			boolean fromUser) {
+		final OnRingChangeListener[] listeners = mListeners.get();
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].onProgressChanged(this, ring, progress, fromUser);
+		}
+	}
+
+	private void onStartTrackingTouch(int ring) {
+		final OnRingChangeListener[] listeners = mListeners.get();
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].onStartTrackingTouch(this, ring);
+		}
+	}
+
+	private void onStopTrackingTouch(int ring) {
+		// The listener always sees the ring's final value before it stops
+		mDispatcher.flush(ring);
+		final OnRingChangeListener[] listeners = mListeners.get();
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].onStopTrackingTouch(this, ring);
+		}
+	}
+
+	/**
+	 * Sets how progress changes are passed on to the listeners, the same as
+	 * {@link SeekArc#setProgressDispatchMode(int)}. Values held back are
+	 * kept per ring.
+	 * 
+	 * @param mode
+	 *            One of {@link SeekArc#DISPATCH_IMMEDIATE} (the default),
+	 *            {@link SeekArc#DISPATCH_DISTINCT} or
+	 *            {@link SeekArc#DISPATCH_PER_FRAME}
+	 */
+	public void setProgressDispatchMode(int mode) {
+		mDispatcher.setMode(mode);
+	}
+
+	public int getProgressDispatchMode() {
+		return mDispatcher.getMode();
+	}
+
+	/**
+	 * Sets the main listener, replacing the last one set this way. Listeners
+	 * added with {@link #addOnRingChangeListener(OnRingChangeListener)} are
+	 * kept.
+	 */
+	public void setOnRingChangeListener(OnRingChangeListener l) {
+		if (mOnRingChangeListener != null) {
+			removeOnRingChangeListener(mOnRingChangeListener);
+		}
+		mOnRingChangeListener = l;
+		if (l != null) {
+			addOnRingChangeListener(l);
+		}
+	}
+
+	/**
+	 * Adds a listener alongside any others. Listeners are notified in the
+	 * order they were added. Safe to call from inside a callback.
+	 * 
+	 * @param l
+	 *            The listener to add, ignored if it is already added
+	 */
+	public void addOnRingChangeListener(OnRingChangeListener l) {
+		if (mListeners.add(l)) {
+			// A new listener hasn't seen any value yet
+			mDispatcher.forgetAll();
+		}
+	}
+
+	/**
+	 * Removes a listener. Safe to call from inside a callback.
+	 */
+	public void removeOnRingChangeListener(OnRingChangeListener l) {
+		if (mListeners.remove(l) && l == mOnRingChangeListener) {
+			mOnRingChangeListener = null;
+		}
+	}
+
+	public int getProgress(int ring) {
+		return mRings.get(ring).progress;
+	}
+
+	public void setProgress(int ring, int progress) {
+		updateProgress(ring, progress, false);
+	}
+
+	public int getMax(int ring) {
+		return mRings.get(ring).geometry.getMax();
+	}
+
+	public void setMax(int ring, int max) {
+		final Ring r = mRings.get(ring);
+		r.geometry.setMax(max);
+		updateProgress(ring, Math.min(r.progress, max), false);
+	}
+
+	public int getProgressColor(int ring) {
+		return mRings.get(ring).progressPaint.getColor();
+	}
+
+	public void setProgressColor(int ring, int color) {
+		mRings.get(ring).progressPaint.setColor(color);
+		invalidate();
+	}
+
+	public int getArcColor(int ring) {
+		return mRings.get(ring).arcPaint.getColor();
+	}
+
+	public void setArcColor(int ring, int color) {
+		mRings.get(ring).arcPaint.setColor(color);
+		invalidate();
+	}
+
+	public int getStartAngle() {
+		return mStartAngle;
+	}
+
+	public void setStartAngle(int startAngle) {
+		mStartAngle = startAngle;
+		for (int i = mRings.size() - 1; i >= 0; i--) {
+			final ArcGeometry geometry = mRings.get(i).geometry;
+			geometry.setStartAngle(startAngle);
+			geometry.updateThumbPosition();
+		}
+		invalidate();
+	}
+
+	public int getSweepAngle() {
+		return mSweepAngle;
+	}
+
+	public void setSweepAngle(int sweepAngle) {
+		mSweepAngle = sweepAngle;
+		for (int i = mRings.size() - 1; i >= 0; i--) {
+			final Ring ring = mRings.get(i);
+			ring.geometry.setSweepAngle(sweepAngle);
+			ring.geometry.setProgress(ring.progress);
+		}
+		invalidate();
+	}
+
+	public int getArcRotation() {
+		return mRotation;
+	}
+
+	public void setArcRotation(int rotation) {
+		mRotation = rotation;
+		for (int i = mRings.size() - 1; i >= 0; i--) {
+			final ArcGeometry geometry = mRings.get(i).geometry;
+			geometry.setRotation(rotation);
+			geometry.updateThumbPosition();
+		}
+		invalidate();
+	}
+
+	public boolean isClockwise() {
+		return mClockwise;
+	}
+
+	public void setClockwise(boolean clockwise) {
+		mClockwise = clockwise;
+		for (int i = mRings.size() - 1; i >= 0; i--) {
+			mRings.get(i).geometry.setClockwise(clockwise);
+		}
+		invalidate();
+	}
+
+	public void setTouchInSide(boolean isEnabled) {
+		mTouchInside = isEnabled;
+		for (int i = mRings.size() - 1; i >= 0; i--) {
+			mRings.get(i).geometry.setTouchInside(isEnabled,
+					mStyle.thumbHalfWidth, mStyle.thumbHalfHeight);
+		}
+	}
+
+	public boolean isEnabled() {
+		return mEnabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		mEnabled = enabled;
+		invalidate();
+	}
+}
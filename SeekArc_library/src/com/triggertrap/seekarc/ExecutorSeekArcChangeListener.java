@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc;
+
+import java.util.concurrent.Executor;
+
+import com.triggertrap.seekarc.SeekArc.OnSeekArcChangeListener;
+
+/**
+ * 
+ * ExecutorSeekArcChangeListener.java
+ * 
+ * Wraps an {@link OnSeekArcChangeListener} so its callbacks run on an
+ * {@link Executor} instead of the UI thread, keeping a slow listener from
+ * stalling touch handling and drawing.
+ * 
+ * Progress is conflated: if the listener is still busy when new progress
+ * arrives, any progress it hasn't seen yet is replaced by the latest value
+ * rather than queued. Start and stop notifications are never dropped and
+ * are delivered in order with the progress around them, so the last
+ * progress before a stop is always delivered before the stop. Callbacks are
+ * run one at a time even on a multi-threaded executor.
+ * 
+ * The callbacks are not on the UI thread so the SeekArc passed to them must
+ * not be touched other than to identify it.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class ExecutorSeekArcChangeListener implements OnSeekArcChangeListener {
+
+	private static final int EVENT_START = 0;
+	private static final int EVENT_PROGRESS = 1;
+	private static final int EVENT_STOP = 2;
+
+	private final OnSeekArcChangeListener mListener;
+	private final Executor mExecutor;
+	private final Object mLock = new Object();
+
+	// Pending events as a ring buffer of parallel arrays, guarded by mLock
+	private int[] mTypes = new int[8];
+	private int[] mValues = new int[8];
+	private boolean[] mFromUser = new boolean[8];
+	private SeekArc[] mSeekArcs = new SeekArc[8];
+	private int mHead;
+	private int mCount;
+	private boolean mDraining;
+
+	private final Runnable mDrain = new Runnable() {
+		@Override
+		public void run() {
+			drain();
+		}
+	};
+
+	/**
+	 * @param listener
+	 *            The listener to deliver to
+	 * @param executor
+	 *            Where to run the listener callbacks
+	 */
+	public ExecutorSeekArcChangeListener(OnSeekArcChangeListener listener,
+			Executor executor) {
+		if (listener == null || executor == null) {
+			throw new NullPointerException("listener and executor are required");
+		}
+		mListener = listener;
+		mExecutor = executor;
+	}
+
+	public OnSeekArcChangeListener getListener() {
+		return mListener;
+	}
+
+	@Override
+	public void onProgressChanged(SeekArc seekArc, int progress,
+			boolean fromUser) {
+		enqueue(EVENT_PROGRESS, seekArc, progress, fromUser);
+	}
+
+	@Override
+	public void onStartTrackingTouch(SeekArc seekArc) {
+		enqueue(EVENT_START, seekArc, 0, false);
+	}
+
+	@Override
+	public void onStopTrackingTouch(SeekArc seekArc) {
+		enqueue(EVENT_STOP, seekArc, 0, false);
+	}
+
+	private void enqueue(int type, SeekArc seekArc, int value, boolean fromUser) {
+		synchronized (mLock) {
+			int tail = (mHead + mCount - 1) & (mTypes.length - 1);
+			if (type == EVENT_PROGRESS && mCount > 0
+					&& mTypes[tail] == EVENT_PROGRESS
+					&& mSeekArcs[tail] == seekArc) {
+				// Not picked up yet, so the latest value wins
+				mValues[tail] = value;
+				mFromUser[tail] = fromUser;
+			} else {
+				if (mCount == mTypes.length) {
+					grow();
+				}
+				tail = (mHead + mCount) & (mTypes.length - 1);
+				mTypes[tail] = type;
+				mValues[tail] = value;
+				mFromUser[tail] = fromUser;
+				mSeekArcs[tail] = seekArc;
+				mCount++;
+			}
+
+			if (mDraining) {
+				return;
+			}
+			mDraining = true;
+		}
+
+		try {
+			mExecutor.execute(mDrain);
+		} catch (RuntimeException e) {
+			synchronized (mLock) {
+				mDraining = false;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Doubles the buffer. Only happens when start and stop events pile up
+	 * behind a very slow listener, progress alone never grows it.
+	 */
+	private void grow() {
+		final int length = mTypes.length;
+		int[] types = new int[length * 2];
+		int[] values = new int[length * 2];
+		boolean[] fromUser = new boolean[length * 2];
+		SeekArc[] seekArcs = new SeekArc[length * 2];
+		for (int i = 0; i < mCount; i++) {
+			int index = (mHead + i) & (length - 1);
+			types[i] = mTypes[index];
+			values[i] = mValues[index];
+			fromUser[i] = mFromUser[index];
+			seekArcs[i] = mSeekArcs[index];
+		}
+		mTypes = types;
+		mValues = values;
+		mFromUser = fromUser;
+		mSeekArcs = seekArcs;
+		mHead = 0;
+	}
+
+	private void drain() {
+		while (true) {
+			final int type;
+			final int value;
+			final boolean fromUser;
+			final SeekArc seekArc;
+			synchronized (mLock) {
+				if (mCount == 0) {
+					mDraining = false;
+					return;
+				}
+				type = mTypes[mHead];
+				value = mValues[mHead];
+				fromUser = mFromUser[mHead];
+				seekArc = mSeekArcs[mHead];
+				mSeekArcs[mHead] = null;
+				mHead = (mHead + 1) & (mTypes.length - 1);
+				mCount--;
+			}
+
+			boolean delivered = false;
+			try {
+				switch (type) {
+				case EVENT_START:
+					mListener.onStartTrackingTouch(seekArc);
+					break;
+				case EVENT_PROGRESS:
+					mListener.onProgressChanged(seekArc, value, fromUser);
+					break;
+				default:
+					mListener.onStopTrackingTouch(seekArc);
+					break;
+				}
+				delivered = true;
+			} finally {
+				if (!delivered) {
+					// Let the next event restart delivery
+					synchronized (mLock) {
+						mDraining = false;
+					}
+				}
+			}
+		}
+	}
+}
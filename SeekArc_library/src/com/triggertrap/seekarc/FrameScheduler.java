@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+/**
+ * 
+ * FrameScheduler.java
+ * 
+ * Runs a callback on the next display frame. Uses the Choreographer on Jelly
+ * Bean and above and falls back to a main thread Handler on older versions.
+ * Scheduling more than once before the frame arrives still only runs the
+ * callback once, and {@link #schedule()} can be called from any thread.
+ * Nothing is allocated per frame.
+ * 
+ * Can be created on any thread. The Choreographer belongs to the main
+ * thread, so it is only looked up there; a schedule from another thread
+ * before that first hops to the main thread through a Handler.
+ * 
+ * @author Neil Davies
+ * 
+ */
+final class FrameScheduler {
+
+	/**
+	 * Frame interval used when there is no Choreographer
+	 */
+	private static final long FALLBACK_FRAME_DELAY_MS = 16;
+
+	interface Callback {
+
+		/**
+		 * Called on the main thread once per scheduled frame.
+		 * 
+		 * @param frameTimeNanos
+		 *            The time the frame started, in the
+		 *            {@link System#nanoTime()} time base
+		 */
+		void doFrame(long frameTimeNanos);
+	}
+
+	private final Callback mCallback;
+	private final AtomicBoolean mScheduled = new AtomicBoolean();
+	private final boolean mUseChoreographer;
+	/**
+	 * Created on the main thread the first time it is needed, then read
+	 * from any thread
+	 */
+	private volatile ChoreographerFrames mChoreographerFrames;
+	private final Handler mHandler;
+	private final Runnable mHandlerFrame;
+
+	FrameScheduler(Callback callback) {
+		mCallback = callback;
+		mUseChoreographer = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+		mHandler = new Handler(Looper.getMainLooper());
+		mHandlerFrame = new Runnable() {
+			@Override
+			public void run() {
+				if (mUseChoreographer) {
+					// Scheduled from another thread, now on the main one
+					choreographerFrames().post();
+				} else {
+					onFrame(System.nanoTime());
+				}
+			}
+		};
+		if (mUseChoreographer && isMainThread()) {
+			mChoreographerFrames = new ChoreographerFrames(this);
+		}
+	}
+
+	/**
+	 * Asks for the callback to run on the next frame. Does nothing if it is
+	 * already scheduled.
+	 */
+	void schedule() {
+		if (!mScheduled.compareAndSet(false, true)) {
+			return;
+		}
+		if (!mUseChoreographer) {
+			mHandler.postDelayed(mHandlerFrame, FALLBACK_FRAME_DELAY_MS);
+			return;
+		}
+		final ChoreographerFrames frames = mChoreographerFrames;
+		if (frames != null) {
+			frames.post();
+		} else if (isMainThread()) {
+			choreographerFrames().post();
+		} else {
+			mHandler.post(mHandlerFrame);
+		}
+	}
+
+	/**
+	 * Removes a scheduled callback, if any. Main thread only, a schedule from
+	 * another thread racing with this may be dropped.
+	 */
+	void cancel() {
+		if (!mScheduled.get()) {
+			return;
+		}
+		// Remove before clearing the flag so a racing schedule() can't post
+		// a callback that we then remove while leaving the flag set
+		mHandler.removeCallbacks(mHandlerFrame);
+		if (mChoreographerFrames != null) {
+			mChoreographerFrames.remove();
+		}
+		mScheduled.set(false);
+	}
+
+	boolean isScheduled() {
+		return mScheduled.get();
+	}
+
+	/**
+	 * Main thread only
+	 */
+	private ChoreographerFrames choreographerFrames() {
+		if (mChoreographerFrames == null) {
+			mChoreographerFrames = new ChoreographerFrames(this);
+		}
+		return mChoreographerFrames;
+	}
+
+	private boolean isMainThread() {
+		return Looper.myLooper() == mHandler.getLooper();
+	}
+
+	private void onFrame(long frameTimeNanos) {
+		if (mScheduled.getAndSet(false)) {
+			mCallback.doFrame(frameTimeNanos);
+		}
+	}
+
+	/**
+	 * Kept in its own class so older versions never load Choreographer.
+	 */
+	@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+	private static final class ChoreographerFrames implements
+			Choreographer.FrameCallback {
+
+		private final FrameScheduler mScheduler;
+		private final Choreographer mChoreographer;
+
+		ChoreographerFrames(FrameScheduler scheduler) {
+			mScheduler = scheduler;
+			mChoreographer = Choreographer.getInstance();
+		}
+
+		void post() {
+			mChoreographer.postFrameCallback(this);
+		}
+
+		void remove() {
+			mChoreographer.removeFrameCallback(this);
+		}
+
+		@Override
+		public void doFrame(long frameTimeNanos) {
+			mScheduler.onFrame(frameTimeNanos);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc;
+
+import java.lang.reflect.Array;
+
+/**
+ * 
+ * ListenerArray.java
+ * 
+ * The listener list shared by SeekArc and ConcentricSeekArc. The array is
+ * copied on write, so dispatch can walk {@link #get()} without allocating
+ * and listeners can be added or removed from inside a callback; the change
+ * takes effect from the next notification.
+ * 
+ * @author Neil Davies
+ * 
+ */
+final class ListenerArray<L> {
+
+	private L[] mListeners;
+
+	/**
+	 * @param empty
+	 *            An empty array of the listener type, used as the initial
+	 *            array and to make new ones
+	 */
+	ListenerArray(L[] empty) {
+		mListeners = empty;
+	}
+
+	/**
+	 * @return The current listeners, in the order they were added. Never
+	 *         changed once returned.
+	 */
+	L[] get() {
+		return mListeners;
+	}
+
+	/**
+	 * @return True if the listener was added, false if it was null or
+	 *         already there
+	 */
+	boolean add(L l) {
+		if (l == null || indexOf(l) >= 0) {
+			return false;
+		}
+		final L[] listeners = mListeners;
+		final L[] added = newArray(listeners.length + 1);
+		System.arraycopy(listeners, 0, added, 0, listeners.length);
+		added[listeners.length] = l;
+		mListeners = added;
+		return true;
+	}
+
+	/**
+	 * @return True if the listener was found and removed
+	 */
+	boolean remove(L l) {
+		return removeAt(indexOf(l));
+	}
+
+	/**
+	 * @return True if there was a listener at the index to remove
+	 */
+	boolean removeAt(int index) {
+		final L[] listeners = mListeners;
+		if (index < 0 || index >= listeners.length) {
+			return false;
+		}
+		final L[] removed = newArray(listeners.length - 1);
+		System.arraycopy(listeners, 0, removed, 0, index);
+		System.arraycopy(listeners, index + 1, removed, index,
+				listeners.length - index - 1);
+		mListeners = removed;
+		return true;
+	}
+
+	int indexOf(L l) {
+		final L[] listeners = mListeners;
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] == l) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	boolean isEmpty() {
+		return mListeners.length == 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private L[] newArray(int length) {
+		return (L[]) Array.newInstance(
+				mListeners.getClass().getComponentType(), length);
+	}
+}
@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc;
+
+/**
+ * 
+ * ProgressDispatcher.java
+ * 
+ * The progress dispatch shared by SeekArc and ConcentricSeekArc. Follows
+ * the {@link SeekArc#DISPATCH_IMMEDIATE}, {@link SeekArc#DISPATCH_DISTINCT}
+ * and {@link SeekArc#DISPATCH_PER_FRAME} modes for any number of channels,
+ * such as a progress, a range or one per ring, each remembering what its
+ * listeners last saw and what is held back for the next frame. Values are
+ * longs so a range can pack both its ends into one. Nothing is allocated
+ * per update.
+ * 
+ * @author Neil Davies
+ * 
+ */
+final class ProgressDispatcher {
+
+	interface Target {
+
+		/**
+		 * Passes a value on to the channel's listeners. Called on the main
+		 * thread.
+		 */
+		void deliver(int channel, long value, boolean fromUser);
+	}
+
+	/**
+	 * Marks a channel that has nothing pending or that its listeners
+	 * haven't seen a value for
+	 */
+	private static final long NONE = Long.MIN_VALUE;
+
+	private final Target mTarget;
+	private int mMode = SeekArc.DISPATCH_IMMEDIATE;
+	private long[] mLastDispatched = new long[0];
+	private long[] mPending = new long[0];
+	private boolean[] mPendingFromUser = new boolean[0];
+	private FrameScheduler mFrames;
+
+	ProgressDispatcher(Target target, int channels) {
+		mTarget = target;
+		setChannelCount(channels);
+	}
+
+	/**
+	 * Grows or shrinks the channels. Channels kept keep their state, new
+	 * ones start with nothing seen and nothing pending.
+	 */
+	void setChannelCount(int channels) {
+		final int kept = Math.min(channels, mPending.length);
+		final long[] lastDispatched = new long[channels];
+		final long[] pending = new long[channels];
+		final boolean[] pendingFromUser = new boolean[channels];
+		System.arraycopy(mLastDispatched, 0, lastDispatched, 0, kept);
+		System.arraycopy(mPending, 0, pending, 0, kept);
+		System.arraycopy(mPendingFromUser, 0, pendingFromUser, 0, kept);
+		for (int i = kept; i < channels; i++) {
+			lastDispatched[i] = NONE;
+			pending[i] = NONE;
+		}
+		mLastDispatched = lastDispatched;
+		mPending = pending;
+		mPendingFromUser = pendingFromUser;
+	}
+
+	int getChannelCount() {
+		return mPending.length;
+	}
+
+	/**
+	 * Passes a value on, now or at the next frame depending on the mode.
+	 */
+	void dispatch(int channel, long value, boolean fromUser) {
+		switch (mMode) {
+		case SeekArc.DISPATCH_DISTINCT:
+			if (value != mLastDispatched[channel]) {
+				deliver(channel, value, fromUser);
+			}
+			break;
+		case SeekArc.DISPATCH_PER_FRAME:
+			mPending[channel] = value;
+			mPendingFromUser[channel] = fromUser;
+			mFrames.schedule();
+			break;
+		default:
+			deliver(channel, value, fromUser);
+			break;
+		}
+	}
+
+	private void deliver(int channel, long value, boolean fromUser) {
+		mLastDispatched[channel] = value;
+		mTarget.deliver(channel, value, fromUser);
+	}
+
+	/**
+	 * Delivers the value held back for one channel straight away, unless
+	 * its listeners have already seen it.
+	 */
+	void flush(int channel) {
+		final long value = mPending[channel];
+		if (value == NONE) {
+			return;
+		}
+		mPending[channel] = NONE;
+		if (value != mLastDispatched[channel]) {
+			deliver(channel, value, mPendingFromUser[channel]);
+		}
+	}
+
+	/**
+	 * Delivers everything held back straight away and cancels the frame.
+	 */
+	void flushAll() {
+		if (mFrames != null) {
+			mFrames.cancel();
+		}
+		// A listener can change the channel count, so check every time
+		for (int i = 0; i < mPending.length; i++) {
+			flush(i);
+		}
+	}
+
+	/**
+	 * Forgets what the channel's listeners have seen, e.g. when a listener
+	 * is added, so the next value is delivered even in distinct mode.
+	 */
+	void forget(int channel) {
+		mLastDispatched[channel] = NONE;
+	}
+
+	void forgetAll() {
+		for (int i = 0; i < mLastDispatched.length; i++) {
+			mLastDispatched[i] = NONE;
+		}
+	}
+
+	/**
+	 * Sets the dispatch mode, first delivering anything held back under the
+	 * old one.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the mode is not one of the SeekArc.DISPATCH_ constants
+	 */
+	void setMode(int mode) {
+		if (mode != SeekArc.DISPATCH_IMMEDIATE
+				&& mode != SeekArc.DISPATCH_DISTINCT
+				&& mode != SeekArc.DISPATCH_PER_FRAME) {
+			throw new IllegalArgumentException("Unknown dispatch mode " + mode);
+		}
+		flushAll();
+		mMode = mode;
+		if (mode == SeekArc.DISPATCH_PER_FRAME && mFrames == null) {
+			mFrames = new FrameScheduler(new FrameScheduler.Callback() {
+				@Override
+				public void doFrame(long frameTimeNanos) {
+					flushAll();
+				}
+			});
+		}
+	}
+
+	int getMode() {
+		return mMode;
+	}
+}
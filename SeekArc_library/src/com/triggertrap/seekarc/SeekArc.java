@@ -23,18 +23,31 @@
  ******************************************************************************/
 package com.triggertrap.seekarc;
 
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import android.content.Context;
-import android.content.res.Resources;
-import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Paint;
+import android.graphics.Rect;
 import android.graphics.RectF;
+import android.graphics.Typeface;
 import android.graphics.drawable.Drawable;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.MotionEvent;
 import android.view.View;
 
+import com.triggertrap.seekarc.geometry.AngularVelocityTracker;
+import com.triggertrap.seekarc.geometry.ArcAnimator;
+import com.triggertrap.seekarc.geometry.ArcFling;
+import com.triggertrap.seekarc.geometry.ArcGeometry;
+import com.triggertrap.seekarc.geometry.ArcTouchTracker;
+import com.triggertrap.seekarc.geometry.RotaryAccumulator;
+import com.triggertrap.seekarc.geometry.ValueScale;
+import com.triggertrap.seekarc.geometry.TouchPredictor;
+
 /**
  * 
  * SeekArc.java
@@ -47,20 +60,56 @@ import android.view.View;
  */
 public class SeekArc extends View {
 
-	private static final String TAG = SeekArc.class.getSimpleName();
-	private static int INVALID_PROGRESS_VALUE = -1;
-	// The initial rotational offset -90 means we start at 12 o'clock
-	private final int mAngleOffset = -90;
+	private static int INVALID_PROGRESS_VALUE = ArcGeometry.INVALID_PROGRESS_VALUE;
 
 	/**
-	 * The Drawable for the seek arc thumbnail
+	 * Progress dispatch mode: the listener hears about every progress update,
+	 * even if the value hasn't changed. This is the default.
 	 */
-	private Drawable mThumb;
-	
+	public static final int DISPATCH_IMMEDIATE = 0;
+
+	/**
+	 * Progress dispatch mode: updates that don't change the value are
+	 * dropped, the rest are delivered straight away.
+	 */
+	public static final int DISPATCH_DISTINCT = 1;
+
+	/**
+	 * Progress dispatch mode: updates that don't change the value are
+	 * dropped and the rest are coalesced to at most one per display frame.
+	 * Any pending value is delivered before onStopTrackingTouch.
+	 */
+	public static final int DISPATCH_PER_FRAME = 2;
+
+	/**
+	 * Touch sample mode: only the latest position in each touch event is
+	 * used. This is the default.
+	 */
+	public static final int TOUCH_SAMPLES_LATEST = 0;
+
+	/**
+	 * Touch sample mode: every historical position batched into a move event
+	 * is used and each change of progress along the way is applied in order.
+	 * Running past either end of the sweep pins the progress at that end.
+	 */
+	public static final int TOUCH_SAMPLES_ALL = 1;
+
+	/**
+	 * Touch sample mode: every historical position is walked as with
+	 * {@link #TOUCH_SAMPLES_ALL} but only the resulting progress is applied,
+	 * once per event.
+	 */
+	public static final int TOUCH_SAMPLES_NET = 2;
+
+	/**
+	 * The length of the buffer given to a {@link LabelFormatter}
+	 */
+	public static final int LABEL_BUFFER_SIZE = ArcLabel.BUFFER_SIZE;
+
 	/**
-	 * The Maximum value that this SeekArc can be set to
+	 * The Drawable for the seek arc thumbnail
 	 */
-	private int mMax = 100;
+	private Drawable mThumb;
 	
 	/**
 	 * The Current value that the SeekArc is set to
@@ -78,54 +127,163 @@ public class SeekArc extends View {
 	private int mArcWidth = 2;
 	
 	/**
-	 * The Angle to start drawing this Arc from
+	 * Give the SeekArc rounded edges
 	 */
-	private int mStartAngle = 0;
+	private boolean mRoundedEdges = false;
 	
 	/**
-	 * The Angle through which to draw the arc (Max is 360)
+	 * Enable touch inside the SeekArc
 	 */
-	private int mSweepAngle = 360;
+	private boolean mTouchInside = true;
 	
+
+	/**
+	 * is the control enabled/touchable
+ 	 */
+	private boolean mEnabled = true;
+
 	/**
-	 * The rotation of the SeekArc- 0 is twelve o'clock
+	 * Render the background arc once into a bitmap and reuse it each frame
 	 */
-	private int mRotation = 0;
-	
+	private boolean mCachedTrack = false;
+
 	/**
-	 * Give the SeekArc rounded edges
+	 * Which positions in each touch event are turned into progress
 	 */
-	private boolean mRoundedEdges = false;
-	
+	private int mTouchSampleMode = TOUCH_SAMPLES_LATEST;
+
 	/**
-	 * Enable touch inside the SeekArc
+	 * Keep the thumb moving after the finger lifts
 	 */
-	private boolean mTouchInside = true;
-	
+	private boolean mFlingEnabled = false;
+
+	/**
+	 * How quickly a fling slows down
+	 */
+	private float mFlingFriction = ArcFling.DEFAULT_FRICTION;
+
 	/**
-	 * Will the progress increase clockwise or anti-clockwise
+	 * Draw the thumb where the finger is expected to be at the next frame
 	 */
-	private boolean mClockwise = true;
+	private boolean mTouchPrediction = false;
 
+	/**
+	 * How far ahead to predict, in milliseconds
+	 */
+	private long mPredictionLookahead = 16;
 
 	/**
-	 * is the control enabled/touchable
- 	 */
-	private boolean mEnabled = true;
+	 * The angle, progress and layout math for this SeekArc. Max, start angle,
+	 * sweep angle, rotation and direction live here.
+	 */
+	private final ArcGeometry mGeometry = new ArcGeometry();
+	private final ArcTouchTracker mTouchTracker = new ArcTouchTracker(mGeometry);
+
+	/**
+	 * The pointer moving the thumb. When it lifts while other fingers are
+	 * still down the thumb is handed over to one of them.
+	 */
+	private int mActivePointerId = INVALID_POINTER;
+
+	/**
+	 * The shared style this SeekArc was created from. Its paints are used
+	 * as they are until a setter needs to change one.
+	 */
+	private SeekArcStyle mStyle;
 
 	// Internal variables
-	private int mArcRadius = 0;
-	private float mProgressSweep = 0;
 	private RectF mArcRect = new RectF();
 	private Paint mArcPaint;
 	private Paint mProgressPaint;
-	private int mTranslateX;
-	private int mTranslateY;
-	private int mThumbXPos;
-	private int mThumbYPos;
 	private double mTouchAngle;
-	private float mTouchIgnoreRadius;
+	private Bitmap mTrackBitmap;
+	private Canvas mTrackCanvas;
+	private boolean mTrackDirty = true;
+	private final float[] mDirtyBounds = new float[4];
+	private ArcTicks mTicks;
+	// Tick settings made before there are ticks, applied when they're made
+	private boolean mTickColorSet = false;
+	private int mTickColor;
+	private int mTickWidth = -1;
+	private int mTickLength = -1;
+	private ArcLabel mLabel;
+	private boolean mLabelEnabled = false;
+
+	/**
+	 * Null unless metrics are turned on, so recording costs a null check
+	 * when they're off
+	 */
+	private SeekArcMetrics mMetrics;
+	private boolean mSnapToTicks = false;
+	private ArcGradient mProgressGradient;
+	private int[] mBandThresholds;
+	private int[] mBandColors;
+	/**
+	 * The progress colour from before the bands were set, put back when they
+	 * are cleared
+	 */
+	private int mSolidProgressColor;
+	private static final OnSeekArcChangeListener[] NO_LISTENERS = new OnSeekArcChangeListener[0];
 	private OnSeekArcChangeListener mOnSeekArcChangeListener;
+	/**
+	 * Every registered listener, including mOnSeekArcChangeListener
+	 */
+	private final ListenerArray<OnSeekArcChangeListener> mListeners = new ListenerArray<OnSeekArcChangeListener>(
+			NO_LISTENERS);
+	// Dispatch channels, the range packs its lower end into the high half
+	private static final int CHANNEL_PROGRESS = 0;
+	private static final int CHANNEL_RANGE = 1;
+	private final ProgressDispatcher mDispatcher = new ProgressDispatcher(
+			new ProgressDispatcher.Target() {
+				@Override
+				public void deliver(int channel, long value, boolean fromUser) {
+					if (channel == CHANNEL_PROGRESS) {
+						deliverProgressChanged((int) value, fromUser);
+					} else {
+						deliverRangeChanged((int) (value >> 32), (int) value,
+								fromUser);
+					}
+				}
+			}, 2);
+
+	// Progress handed over from other threads by postProgress
+	private static final int NO_POSTED_PROGRESS = Integer.MIN_VALUE;
+	private final AtomicInteger mPostedProgress = new AtomicInteger(
+			NO_POSTED_PROGRESS);
+	// Created by the first postProgress, which can be on any thread
+	private volatile FrameScheduler mPostFrames;
+
+	// Fling state, created when fling is first enabled
+	private AngularVelocityTracker mVelocityTracker;
+	private ArcFling mFling;
+	private FrameScheduler mFlingFrames;
+	private TouchPredictor mPredictor;
+
+	// Animated setters, created on first use
+	private static final int ANIMATE_PROGRESS = 0;
+	private static final int ANIMATE_SWEEP = 1;
+	private static final int ANIMATE_START = 2;
+	private static final int ANIMATE_ROTATION = 3;
+	private ArcAnimator mAnimator;
+	private FrameScheduler mAnimationFrames;
+	private long mAnimationDuration = ArcAnimator.DEFAULT_DURATION_MS;
+
+	// Range mode, the lower thumb is created when range mode is turned on.
+	// Each thumb can be held by its own pointer; the pointer ids and touch
+	// trackers are indexed by RANGE_UPPER and RANGE_LOWER.
+	private static final int RANGE_UPPER = 0;
+	private static final int RANGE_LOWER = 1;
+	private static final int INVALID_POINTER = -1;
+	private int mLowerProgress = 0;
+	private Drawable mLowerThumb;
+	private final int[] mRangePointerIds = { INVALID_POINTER, INVALID_POINTER };
+	private final ArcTouchTracker[] mRangeTrackers = new ArcTouchTracker[2];
+	private OnSeekArcRangeChangeListener mOnSeekArcRangeChangeListener;
+
+	// Endless mode, created when it is first turned on
+	private boolean mEndless = false;
+	private RotaryAccumulator mAccumulator;
+	private OnSeekArcEndlessChangeListener mOnSeekArcEndlessChangeListener;
 
 	public interface OnSeekArcChangeListener {
 
@@ -165,177 +323,304 @@ public class SeekArc extends View {
 		void onStopTrackingTouch(SeekArc seekArc);
 	}
 
+	public interface OnSeekArcRangeChangeListener {
+
+		/**
+		 * Notification that either end of the range has changed. Both ends
+		 * are given, whichever one moved.
+		 * 
+		 * @param seekArc
+		 *            The SeekArc whose range has changed
+		 * @param lower
+		 *            The lower end of the range, 0..upper
+		 * @param upper
+		 *            The upper end of the range, lower..max. This is the
+		 *            same as {@link SeekArc#getProgress()}.
+		 * @param fromUser
+		 *            True if the change was initiated by the user.
+		 */
+		void onRangeChanged(SeekArc seekArc, int lower, int upper,
+				boolean fromUser);
+	}
+
+	public interface OnSeekArcEndlessChangeListener {
+
+		/**
+		 * Notification that the accumulated value of an endless SeekArc has
+		 * changed.
+		 * 
+		 * @param seekArc
+		 *            The SeekArc whose value has changed
+		 * @param value
+		 *            The accumulated value
+		 * @param fromUser
+		 *            True if the change was initiated by the user.
+		 */
+		void onValueChanged(SeekArc seekArc, long value, boolean fromUser);
+	}
+
+	/**
+	 * Turns the value shown in the centre label into text. Called from the
+	 * UI thread each time the value changes, so it shouldn't allocate.
+	 */
+	public interface LabelFormatter {
+
+		/**
+		 * @param value
+		 *            The progress, or the accumulated value of an endless
+		 *            SeekArc
+		 * @param buffer
+		 *            Where to write the text, starting at index 0. Reused
+		 *            between calls and {@link SeekArc#LABEL_BUFFER_SIZE}
+		 *            long.
+		 * @return The number of characters written
+		 */
+		int format(long value, char[] buffer);
+	}
+
 	public SeekArc(Context context) {
 		super(context);
-		init(context, null, 0);
+		init(SeekArcStyle.obtain(context, null, 0));
 	}
 
 	public SeekArc(Context context, AttributeSet attrs) {
 		super(context, attrs);
-		init(context, attrs, R.attr.seekArcStyle);
+		init(SeekArcStyle.obtain(context, attrs, R.attr.seekArcStyle));
 	}
 
 	public SeekArc(Context context, AttributeSet attrs, int defStyle) {
 		super(context, attrs, defStyle);
-		init(context, attrs, defStyle);
+		init(SeekArcStyle.obtain(context, attrs, defStyle));
 	}
 
-	private void init(Context context, AttributeSet attrs, int defStyle) {
-
-		Log.d(TAG, "Initialising SeekArc");
-		final Resources res = getResources();
-		float density = context.getResources().getDisplayMetrics().density;
-
-		// Defaults, may need to link this into theme settings
-		int arcColor = res.getColor(R.color.progress_gray);
-		int progressColor = res.getColor(R.color.default_blue_light);
-		int thumbHalfheight = 0;
-		int thumbHalfWidth = 0;
-		mThumb = res.getDrawable(R.drawable.seek_arc_control_selector);
-		// Convert progress width to pixels for current density
-		mProgressWidth = (int) (mProgressWidth * density);
-
-		
-		if (attrs != null) {
-			// Attribute initialization
-			final TypedArray a = context.obtainStyledAttributes(attrs,
-					R.styleable.SeekArc, defStyle, 0);
-
-			Drawable thumb = a.getDrawable(R.styleable.SeekArc_thumb);
-			if (thumb != null) {
-				mThumb = thumb;
-			}
-
-			
-			
-			thumbHalfheight = (int) mThumb.getIntrinsicHeight() / 2;
-			thumbHalfWidth = (int) mThumb.getIntrinsicWidth() / 2;
-			mThumb.setBounds(-thumbHalfWidth, -thumbHalfheight, thumbHalfWidth,
-					thumbHalfheight);
-
-			mMax = a.getInteger(R.styleable.SeekArc_max, mMax);
-			mProgress = a.getInteger(R.styleable.SeekArc_progress, mProgress);
-			mProgressWidth = (int) a.getDimension(
-					R.styleable.SeekArc_progressWidth, mProgressWidth);
-			mArcWidth = (int) a.getDimension(R.styleable.SeekArc_arcWidth,
-					mArcWidth);
-			mStartAngle = a.getInt(R.styleable.SeekArc_startAngle, mStartAngle);
-			mSweepAngle = a.getInt(R.styleable.SeekArc_sweepAngle, mSweepAngle);
-			mRotation = a.getInt(R.styleable.SeekArc_rotation, mRotation);
-			mRoundedEdges = a.getBoolean(R.styleable.SeekArc_roundEdges,
-					mRoundedEdges);
-			mTouchInside = a.getBoolean(R.styleable.SeekArc_touchInside,
-					mTouchInside);
-			mClockwise = a.getBoolean(R.styleable.SeekArc_clockwise,
-					mClockwise);
-			mEnabled = a.getBoolean(R.styleable.SeekArc_enabled, mEnabled);
+	/**
+	 * Creates a SeekArc with a shared style, skipping attribute resolution.
+	 * Useful when building many arcs in code, e.g. for list items.
+	 * 
+	 * @see SeekArcStyle#obtain(Context, int)
+	 */
+	public SeekArc(Context context, SeekArcStyle style) {
+		super(context);
+		init(style);
+	}
 
-			arcColor = a.getColor(R.styleable.SeekArc_arcColor, arcColor);
-			progressColor = a.getColor(R.styleable.SeekArc_progressColor,
-					progressColor);
+	private void init(SeekArcStyle style) {
+		mStyle = style;
+		mThumb = style.newThumb(getResources());
+		mProgress = style.progress;
+		mProgressWidth = style.progressWidth;
+		mArcWidth = style.arcWidth;
+		mRoundedEdges = style.roundedEdges;
+		mTouchInside = style.touchInside;
+		mEnabled = style.enabled;
+
+		mGeometry.setMax(style.max);
+		mGeometry.setStartAngle(style.startAngle);
+		mGeometry.setSweepAngle(style.sweepAngle);
+		mGeometry.setRotation(style.rotation);
+		mGeometry.setClockwise(style.clockwise);
+		mGeometry.setProgress(mProgress);
+
+		// Shared with every arc using this style until one of them is changed
+		mArcPaint = style.arcPaint;
+		mProgressPaint = style.progressPaint;
+	}
 
-			a.recycle();
+	@Override
+	protected void onDraw(Canvas canvas) {
+		final SeekArcMetrics metrics = mMetrics;
+		final long start = metrics != null ? System.nanoTime() : 0;
+		// The cached track already has the anti-clockwise mirroring applied
+		final boolean trackDrawn = mCachedTrack && drawCachedTrack(canvas);
+		if (mProgressGradient != null) {
+			mProgressGradient.apply(mProgressPaint, mGeometry, mArcRect);
 		}
+		ArcRenderer.draw(canvas, mGeometry, mArcRect,
+				trackDrawn ? null : mArcPaint, mTicks, mProgressPaint,
+				mEnabled ? mThumb : null,
+				mEnabled && mGeometry.isRange() ? mLowerThumb : null);
+		// After the renderer has restored the canvas so the text isn't mirrored
+		if (mLabelEnabled) {
+			mLabel.draw(canvas, mGeometry.getTranslateX(),
+					mGeometry.getTranslateY());
+		}
+		if (metrics != null) {
+			metrics.recordDraw(System.nanoTime() - start);
+		}
+	}
 
-		mProgress = (mProgress > mMax) ? mMax : mProgress;
-		mProgress = (mProgress < 0) ? 0 : mProgress;
-
-		mSweepAngle = (mSweepAngle > 360) ? 360 : mSweepAngle;
-		mSweepAngle = (mSweepAngle < 0) ? 0 : mSweepAngle;
+	/**
+	 * Draws the background arc from the cached bitmap, rendering it first if
+	 * it is missing or out of date.
+	 * 
+	 * @return False if there is nothing to cache yet (zero size)
+	 */
+	private boolean drawCachedTrack(Canvas canvas) {
+		final int width = getWidth();
+		final int height = getHeight();
+		if (width <= 0 || height <= 0) {
+			return false;
+		}
 
-		mProgressSweep = (float) mProgress / mMax * mSweepAngle;
+		if (mTrackBitmap == null || mTrackBitmap.getWidth() != width
+				|| mTrackBitmap.getHeight() != height) {
+			releaseTrackCache();
+			mTrackBitmap = Bitmap.createBitmap(width, height,
+					Bitmap.Config.ARGB_8888);
+			mTrackCanvas = new Canvas(mTrackBitmap);
+			mTrackDirty = true;
+		}
 
-		mStartAngle = (mStartAngle > 360) ? 0 : mStartAngle;
-		mStartAngle = (mStartAngle < 0) ? 0 : mStartAngle;
+		if (mTrackDirty) {
+			mTrackBitmap.eraseColor(0);
+			ArcRenderer.drawTrack(mTrackCanvas, mGeometry, mArcRect, mArcPaint,
+					mTicks);
+			mTrackDirty = false;
+		}
 
-		mArcPaint = new Paint();
-		mArcPaint.setColor(arcColor);
-		mArcPaint.setAntiAlias(true);
-		mArcPaint.setStyle(Paint.Style.STROKE);
-		mArcPaint.setStrokeWidth(mArcWidth);
-		//mArcPaint.setAlpha(45);
+		canvas.drawBitmap(mTrackBitmap, 0, 0, null);
+		return true;
+	}
 
-		mProgressPaint = new Paint();
-		mProgressPaint.setColor(progressColor);
-		mProgressPaint.setAntiAlias(true);
-		mProgressPaint.setStyle(Paint.Style.STROKE);
-		mProgressPaint.setStrokeWidth(mProgressWidth);
+	/**
+	 * Marks the cached background arc as out of date. Called whenever
+	 * something that changes how the background arc looks is set.
+	 */
+	private void invalidateTrack() {
+		mTrackDirty = true;
+		if (mTicks != null) {
+			mTicks.invalidate();
+		}
+		invalidate();
+	}
 
-		if (mRoundedEdges) {
-			mArcPaint.setStrokeCap(Paint.Cap.ROUND);
-			mProgressPaint.setStrokeCap(Paint.Cap.ROUND);
+	private void releaseTrackCache() {
+		if (mTrackBitmap != null) {
+			mTrackBitmap.recycle();
+			mTrackBitmap = null;
+			mTrackCanvas = null;
 		}
 	}
 
 	@Override
-	protected void onDraw(Canvas canvas) {		
-		if(!mClockwise) {
-			canvas.scale(-1, 1, mArcRect.centerX(), mArcRect.centerY() );
-		}
-		
-		// Draw the arcs
-		final int arcStart = mStartAngle + mAngleOffset + mRotation;
-		final int arcSweep = mSweepAngle;
-		canvas.drawArc(mArcRect, arcStart, arcSweep, false, mArcPaint);
-		canvas.drawArc(mArcRect, arcStart, mProgressSweep, false,
-				mProgressPaint);
+	protected void onDetachedFromWindow() {
+		super.onDetachedFromWindow();
+		cancelFling();
+		flushPendingProgress();
+		// The cache is rebuilt on the next draw if we are attached again
+		releaseTrackCache();
+	}
 
-		if(mEnabled) {
-			// Draw the thumb nail
-			canvas.translate(mTranslateX - mThumbXPos, mTranslateY - mThumbYPos);
-			mThumb.draw(canvas);
+	@Override
+	protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+		final SeekArcMetrics metrics = mMetrics;
+		if (metrics == null) {
+			super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+			return;
 		}
+		final long start = System.nanoTime();
+		super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+		metrics.recordMeasure(System.nanoTime() - start);
 	}
 
-
 	@Override
-	protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+	protected void onLayout(boolean changed, int left, int top, int right,
+			int bottom) {
+		super.onLayout(changed, left, top, right, bottom);
+		layoutArc(right - left, bottom - top);
+	}
 
-		final int height = getDefaultSize(getSuggestedMinimumHeight(),
-				heightMeasureSpec);
-		final int width = getDefaultSize(getSuggestedMinimumWidth(),
-				widthMeasureSpec);
-		final int min = Math.min(width, height);
-		float top = 0;
-		float left = 0;
-		int arcDiameter = 0;
-
-		mTranslateX = (int) (width * 0.5f);
-		mTranslateY = (int) (height * 0.5f);
-		
-		arcDiameter = min - getPaddingLeft();
-		mArcRadius = arcDiameter / 2;
-		top = height / 2 - (arcDiameter / 2);
-		left = width / 2 - (arcDiameter / 2);
-		mArcRect.set(left, top, left + arcDiameter, top + arcDiameter);
-	
-		int arcStart = (int)mProgressSweep + mStartAngle  + mRotation + 90;
-		mThumbXPos = (int) (mArcRadius * Math.cos(Math.toRadians(arcStart)));
-		mThumbYPos = (int) (mArcRadius * Math.sin(Math.toRadians(arcStart)));
-		
+	/**
+	 * Works out the arc rect, thumb position and touch radius. The geometry
+	 * only does the work when the size or padding has actually changed, so
+	 * repeated layout passes cost a few comparisons.
+	 */
+	private void layoutArc(int width, int height) {
+		if (!mGeometry.setSize(width, height, getPaddingLeft(),
+				getPaddingTop(), getPaddingRight(), getPaddingBottom())) {
+			return;
+		}
+		mArcRect.set(mGeometry.getArcLeft(), mGeometry.getArcTop(),
+				mGeometry.getArcRight(), mGeometry.getArcBottom());
+		mTrackDirty = true;
+		if (mTicks != null) {
+			mTicks.invalidate();
+		}
 		setTouchInSide(mTouchInside);
-		super.onMeasure(widthMeasureSpec, heightMeasureSpec);
 	}
 
 	@Override
 	public boolean onTouchEvent(MotionEvent event) {
+		final SeekArcMetrics metrics = mMetrics;
+		if (metrics == null) {
+			return handleTouchEvent(event);
+		}
+		metrics.beginTouch(System.nanoTime());
+		try {
+			return handleTouchEvent(event);
+		} finally {
+			metrics.endTouch();
+		}
+	}
+
+	private boolean handleTouchEvent(MotionEvent event) {
+		if (mEnabled && mEndless) {
+			return onEndlessTouchEvent(event);
+		}
+		if (mEnabled && mGeometry.isRange()) {
+			return onRangeTouchEvent(event);
+		}
 		if (mEnabled) {
 			this.getParent().requestDisallowInterceptTouchEvent(true);
 
-			switch (event.getAction()) {
+			// Extra pointers going down or up must not be mistaken for the
+			// start or end of the gesture, so look at the masked action
+			switch (event.getActionMasked()) {
 				case MotionEvent.ACTION_DOWN:
+					// A new touch catches the thumb
+					cancelFling();
+					cancelAnimation(ANIMATE_PROGRESS);
+					mActivePointerId = event.getPointerId(0);
+					resetTouchTracking();
 					onStartTrackingTouch();
-					updateOnTouch(event);
+					trackTouchSamples(event, 0);
+					updateOnTouch(event, 0);
+					applyPrediction();
 					break;
-				case MotionEvent.ACTION_MOVE:
-					updateOnTouch(event);
+				case MotionEvent.ACTION_MOVE: {
+					final int index = event.findPointerIndex(mActivePointerId);
+					if (index >= 0) {
+						trackTouchSamples(event, index);
+						updateOnTouch(event, index);
+						applyPrediction();
+					}
 					break;
+				}
+				case MotionEvent.ACTION_POINTER_UP: {
+					final int index = event.getActionIndex();
+					if (event.getPointerId(index) == mActivePointerId) {
+						// Hand the thumb to a finger that is still down. It
+						// starts a fresh track so the thumb doesn't fling or
+						// unwrap from the old finger's path.
+						mActivePointerId = event.getPointerId(index == 0 ? 1 : 0);
+						resetTouchTracking();
+					}
+					break;
+				}
 				case MotionEvent.ACTION_UP:
-					onStopTrackingTouch();
+					trackTouchSamples(event, 0);
+					mActivePointerId = INVALID_POINTER;
+					clearPrediction();
+					// A fling ends tracking when it comes to rest
+					if (!startFling()) {
+						onStopTrackingTouch();
+					}
 					setPressed(false);
 					this.getParent().requestDisallowInterceptTouchEvent(false);
 					break;
 				case MotionEvent.ACTION_CANCEL:
+					mActivePointerId = INVALID_POINTER;
+					clearPrediction();
 					onStopTrackingTouch();
 					setPressed(false);
 					this.getParent().requestDisallowInterceptTouchEvent(false);
@@ -346,110 +631,584 @@ public class SeekArc extends View {
 		return false;
 	}
 
+	/**
+	 * Touch handling for endless mode. Follows the active pointer like the
+	 * normal mode, feeding every sample in the event to the accumulator.
+	 */
+	private boolean onEndlessTouchEvent(MotionEvent event) {
+		switch (event.getActionMasked()) {
+			case MotionEvent.ACTION_DOWN:
+				this.getParent().requestDisallowInterceptTouchEvent(true);
+				mActivePointerId = event.getPointerId(0);
+				mAccumulator.reset();
+				onStartTrackingTouch();
+				updateEndlessOnTouch(event, 0);
+				break;
+			case MotionEvent.ACTION_MOVE: {
+				final int index = event.findPointerIndex(mActivePointerId);
+				if (index >= 0) {
+					updateEndlessOnTouch(event, index);
+				}
+				break;
+			}
+			case MotionEvent.ACTION_POINTER_UP: {
+				final int index = event.getActionIndex();
+				if (event.getPointerId(index) == mActivePointerId) {
+					mActivePointerId = event.getPointerId(index == 0 ? 1 : 0);
+					mAccumulator.reset();
+				}
+				break;
+			}
+			case MotionEvent.ACTION_UP:
+			case MotionEvent.ACTION_CANCEL:
+				mActivePointerId = INVALID_POINTER;
+				onStopTrackingTouch();
+				setPressed(false);
+				this.getParent().requestDisallowInterceptTouchEvent(false);
+				break;
+		}
+		return true;
+	}
+
+	private void updateEndlessOnTouch(MotionEvent event, int pointerIndex) {
+		final long oldValue = mAccumulator.getValue();
+		final int historySize = event.getHistorySize();
+		for (int h = 0; h <= historySize; h++) {
+			final float x = h < historySize ? event.getHistoricalX(
+					pointerIndex, h) : event.getX(pointerIndex);
+			final float y = h < historySize ? event.getHistoricalY(
+					pointerIndex, h) : event.getY(pointerIndex);
+			if (mGeometry.isTouchIgnored(x, y)) {
+				continue;
+			}
+			setPressed(true);
+			final long time = h < historySize ? event.getHistoricalEventTime(h)
+					: event.getEventTime();
+			mAccumulator.addSample(time, mGeometry.getTouchDegrees(x, y));
+		}
+		if (mAccumulator.getValue() != oldValue) {
+			onEndlessValueChanged(true);
+		}
+	}
+
+	private void onEndlessValueChanged(boolean fromUser) {
+		if (mOnSeekArcEndlessChangeListener != null) {
+			final SeekArcMetrics metrics = mMetrics;
+			final long start = metrics != null ? System.nanoTime() : 0;
+			mOnSeekArcEndlessChangeListener.onValueChanged(this,
+					mAccumulator.getValue(), fromUser);
+			if (metrics != null) {
+				metrics.recordListener(System.nanoTime() - start);
+			}
+		}
+		updateEndlessSweep();
+		if (mLabelEnabled) {
+			updateLabel();
+		}
+	}
+
+	/**
+	 * Draws the position within the current turn as the progress sweep.
+	 */
+	private void updateEndlessSweep() {
+		final float oldSweep = mGeometry.getProgressSweep();
+		final float oldThumbX = mGeometry.getThumbCenterX();
+		final float oldThumbY = mGeometry.getThumbCenterY();
+		mGeometry.setProgressSweep((float) (mAccumulator.getTurnFraction()
+				* mGeometry.getSweepAngle()));
+		invalidateProgress(oldSweep, oldThumbX, oldThumbY);
+	}
+
+	private void resetTouchTracking() {
+		mTouchTracker.reset();
+		if (mFlingEnabled) {
+			mVelocityTracker.clear();
+		}
+		if (mTouchPrediction) {
+			mPredictor.reset();
+		}
+	}
+
+	/**
+	 * Touch handling for range mode. Each pointer that goes down takes the
+	 * nearer free thumb and moves only that one, stopping at the other
+	 * thumb rather than passing it, so both thumbs can be dragged at once.
+	 */
+	private boolean onRangeTouchEvent(MotionEvent event) {
+		switch (event.getActionMasked()) {
+			case MotionEvent.ACTION_DOWN:
+				this.getParent().requestDisallowInterceptTouchEvent(true);
+				cancelAnimation(ANIMATE_PROGRESS);
+				onStartTrackingTouch();
+				onRangePointerDown(event, event.getActionIndex());
+				break;
+			case MotionEvent.ACTION_POINTER_DOWN:
+				onRangePointerDown(event, event.getActionIndex());
+				break;
+			case MotionEvent.ACTION_MOVE:
+				for (int thumb = RANGE_UPPER; thumb <= RANGE_LOWER; thumb++) {
+					final int pointerId = mRangePointerIds[thumb];
+					if (pointerId == INVALID_POINTER) {
+						continue;
+					}
+					final int index = event.findPointerIndex(pointerId);
+					if (index >= 0) {
+						updateRangeOnTouch(thumb, event.getX(index),
+								event.getY(index));
+					}
+				}
+				break;
+			case MotionEvent.ACTION_POINTER_UP:
+				final int pointerId = event.getPointerId(event
+						.getActionIndex());
+				for (int thumb = RANGE_UPPER; thumb <= RANGE_LOWER; thumb++) {
+					if (mRangePointerIds[thumb] == pointerId) {
+						mRangePointerIds[thumb] = INVALID_POINTER;
+					}
+				}
+				break;
+			case MotionEvent.ACTION_UP:
+			case MotionEvent.ACTION_CANCEL:
+				mRangePointerIds[RANGE_UPPER] = INVALID_POINTER;
+				mRangePointerIds[RANGE_LOWER] = INVALID_POINTER;
+				onStopTrackingTouch();
+				setPressed(false);
+				this.getParent().requestDisallowInterceptTouchEvent(false);
+				break;
+		}
+		return true;
+	}
+
+	/**
+	 * Gives the new pointer a thumb: the nearer one if both are free,
+	 * otherwise whichever is free. A pointer that finds both thumbs held is
+	 * ignored.
+	 */
+	private void onRangePointerDown(MotionEvent event, int index) {
+		final float x = event.getX(index);
+		final float y = event.getY(index);
+		final boolean upperFree = mRangePointerIds[RANGE_UPPER] == INVALID_POINTER;
+		final boolean lowerFree = mRangePointerIds[RANGE_LOWER] == INVALID_POINTER;
+		final int thumb;
+		if (upperFree && lowerFree) {
+			thumb = mGeometry.isNearerLowerThumb(mGeometry.getTouchDegrees(x,
+					y)) ? RANGE_LOWER : RANGE_UPPER;
+		} else if (upperFree) {
+			thumb = RANGE_UPPER;
+		} else if (lowerFree) {
+			thumb = RANGE_LOWER;
+		} else {
+			return;
+		}
+		mRangePointerIds[thumb] = event.getPointerId(index);
+		mRangeTrackers[thumb].reset();
+		updateRangeOnTouch(thumb, x, y);
+	}
+
+	private void updateRangeOnTouch(int thumb, float x, float y) {
+		if (mGeometry.isTouchIgnored(x, y)) {
+			return;
+		}
+		setPressed(true);
+		// The tracker pins the value at the ends of the sweep instead of
+		// letting it wrap round, so a thumb can't jump across the gap
+		int progress = mRangeTrackers[thumb].addTouch(x, y);
+		if (progress == INVALID_PROGRESS_VALUE) {
+			return;
+		}
+		if (mSnapToTicks) {
+			progress = mGeometry.snapProgress(progress);
+		}
+		if (thumb == RANGE_LOWER) {
+			updateLowerProgress(progress, true);
+		} else {
+			updateProgress(progress, true);
+		}
+	}
+
+	/**
+	 * Feeds the touch angles in an event, including the batched historical
+	 * ones, to the fling velocity tracker and the touch predictor.
+	 */
+	private void trackTouchSamples(MotionEvent event, int pointerIndex) {
+		if (!mFlingEnabled && !mTouchPrediction) {
+			return;
+		}
+		final int historySize = event.getHistorySize();
+		for (int h = 0; h <= historySize; h++) {
+			final float x = h < historySize ? event.getHistoricalX(
+					pointerIndex, h) : event.getX(pointerIndex);
+			final float y = h < historySize ? event.getHistoricalY(
+					pointerIndex, h) : event.getY(pointerIndex);
+			if (mGeometry.isTouchIgnored(x, y)) {
+				continue;
+			}
+			final long time = h < historySize ? event.getHistoricalEventTime(h)
+					: event.getEventTime();
+			final double angle = mGeometry.getTouchDegrees(x, y);
+			if (mFlingEnabled) {
+				mVelocityTracker.addSample(time, angle);
+			}
+			if (mTouchPrediction) {
+				mPredictor.addSample(time, angle);
+			}
+		}
+	}
+
+	/**
+	 * Moves the drawn progress and thumb on to where the finger is expected
+	 * to be at the next frame. mProgress, and so the listener, only ever
+	 * sees the real touch position.
+	 */
+	private void applyPrediction() {
+		if (!mTouchPrediction || mPredictor.getSampleCount() < 2) {
+			return;
+		}
+		final float oldSweep = mGeometry.getProgressSweep();
+		final float oldThumbX = mGeometry.getThumbCenterX();
+		final float oldThumbY = mGeometry.getThumbCenterY();
+
+		float sweep = mGeometry.sweepForProgress(mProgress)
+				+ (float) mPredictor.predictOffset(mPredictionLookahead);
+		final int sweepAngle = mGeometry.getSweepAngle();
+		sweep = (sweep < 0) ? 0 : (sweep > sweepAngle) ? sweepAngle : sweep;
+		if (mSnapToTicks) {
+			// The thumb jumps between detents rather than sliding over them
+			sweep = mGeometry.sweepForProgress(mGeometry.snapProgress(
+					mGeometry.getProgressForAngle(sweep)));
+		}
+		mGeometry.setProgressSweep(sweep);
+
+		invalidateProgress(oldSweep, oldThumbX, oldThumbY);
+	}
+
+	/**
+	 * Puts the drawn progress back on the real value once the finger lifts.
+	 */
+	private void clearPrediction() {
+		if (!mTouchPrediction) {
+			return;
+		}
+		final float oldSweep = mGeometry.getProgressSweep();
+		final float oldThumbX = mGeometry.getThumbCenterX();
+		final float oldThumbY = mGeometry.getThumbCenterY();
+		mGeometry.setProgress(mProgress);
+		invalidateProgress(oldSweep, oldThumbX, oldThumbY);
+	}
+
+	/**
+	 * @return True if the thumb was released fast enough to fling
+	 */
+	private boolean startFling() {
+		if (!mFlingEnabled) {
+			return false;
+		}
+		if (!mFling.start(mGeometry.getProgressSweep(),
+				mVelocityTracker.getVelocity(), 0, mGeometry.getSweepAngle(),
+				System.nanoTime())) {
+			return false;
+		}
+		mFlingFrames.schedule();
+		return true;
+	}
+
+	private void cancelFling() {
+		if (mFling != null && mFling.isRunning()) {
+			mFling.cancel();
+			mFlingFrames.cancel();
+			onStopTrackingTouch();
+		}
+	}
+
+	private void onFlingFrame(long frameTimeNanos) {
+		final boolean running = mFling.step(frameTimeNanos);
+		// Through the refresh so a fling with detents stops on one
+		onProgressRefresh(mGeometry.getProgressForAngle(mFling.getPosition()),
+				true);
+		if (running) {
+			mFlingFrames.schedule();
+		} else {
+			onStopTrackingTouch();
+		}
+	}
+
 	@Override
 	protected void drawableStateChanged() {
 		super.drawableStateChanged();
 		if (mThumb != null && mThumb.isStateful()) {
 			int[] state = getDrawableState();
 			mThumb.setState(state);
+			if (mLowerThumb != null) {
+				mLowerThumb.setState(state);
+			}
 		}
 		invalidate();
 	}
 
 	private void onStartTrackingTouch() {
-		if (mOnSeekArcChangeListener != null) {
-			mOnSeekArcChangeListener.onStartTrackingTouch(this);
+		final SeekArcMetrics metrics = mMetrics;
+		final long start = metrics != null ? System.nanoTime() : 0;
+		final OnSeekArcChangeListener[] listeners = mListeners.get();
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].onStartTrackingTouch(this);
+		}
+		if (metrics != null && listeners.length > 0) {
+			metrics.recordListener(System.nanoTime() - start);
 		}
 	}
 
 	private void onStopTrackingTouch() {
-		if (mOnSeekArcChangeListener != null) {
-			mOnSeekArcChangeListener.onStopTrackingTouch(this);
+		// The listener always sees the final value before the gesture ends
+		flushPendingProgress();
+		final SeekArcMetrics metrics = mMetrics;
+		final long start = metrics != null ? System.nanoTime() : 0;
+		final OnSeekArcChangeListener[] listeners = mListeners.get();
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].onStopTrackingTouch(this);
+		}
+		if (metrics != null && listeners.length > 0) {
+			metrics.recordListener(System.nanoTime() - start);
 		}
 	}
 
-	private void updateOnTouch(MotionEvent event) {
-		boolean ignoreTouch = ignoreTouch(event.getX(), event.getY());
+	private void updateOnTouch(MotionEvent event, int pointerIndex) {
+		if (mTouchSampleMode != TOUCH_SAMPLES_LATEST) {
+			updateOnTouchSamples(event, pointerIndex);
+			return;
+		}
+		final float x = event.getX(pointerIndex);
+		final float y = event.getY(pointerIndex);
+		boolean ignoreTouch = mGeometry.isTouchIgnored(x, y);
 		if (ignoreTouch) {
 			return;
 		}
 		setPressed(true);
-		mTouchAngle = getTouchDegrees(event.getX(), event.getY());
-		int progress = getProgressForAngle(mTouchAngle);
+		mTouchAngle = mGeometry.getTouchDegrees(x, y);
+		int progress = mGeometry.getProgressForAngle(mTouchAngle);
 		onProgressRefresh(progress, true);
 	}
 
-	private boolean ignoreTouch(float xPos, float yPos) {
-		boolean ignore = false;
-		float x = xPos - mTranslateX;
-		float y = yPos - mTranslateY;
-
-		float touchRadius = (float) Math.sqrt(((x * x) + (y * y)));
-		if (touchRadius < mTouchIgnoreRadius) {
-			ignore = true;
+	/**
+	 * Walks the historical positions batched into the event, then the
+	 * current one, through the touch tracker in a single pass.
+	 */
+	private void updateOnTouchSamples(MotionEvent event, int pointerIndex) {
+		final boolean applyAll = mTouchSampleMode == TOUCH_SAMPLES_ALL;
+		final int historySize = event.getHistorySize();
+		int progress = INVALID_PROGRESS_VALUE;
+		boolean touched = false;
+		for (int h = 0; h <= historySize; h++) {
+			final float x = h < historySize ? event.getHistoricalX(
+					pointerIndex, h) : event.getX(pointerIndex);
+			final float y = h < historySize ? event.getHistoricalY(
+					pointerIndex, h) : event.getY(pointerIndex);
+			if (mGeometry.isTouchIgnored(x, y)) {
+				continue;
+			}
+			touched = true;
+			final int sample = mTouchTracker.addTouch(x, y);
+			if (sample == INVALID_PROGRESS_VALUE) {
+				continue;
+			}
+			progress = sample;
+			if (applyAll && progress != mProgress) {
+				onProgressRefresh(progress, true);
+			}
 		}
-		return ignore;
-	}
 
-	private double getTouchDegrees(float xPos, float yPos) {
-		float x = xPos - mTranslateX;
-		float y = yPos - mTranslateY;
-		//invert the x-coord if we are rotating anti-clockwise
-		x= (mClockwise) ? x:-x;
-		// convert to arc Angle
-		double angle = Math.toDegrees(Math.atan2(y, x) + (Math.PI / 2)
-				- Math.toRadians(mRotation));
-		if (angle < 0) {
-			angle = 360 + angle;
+		if (touched) {
+			setPressed(true);
+			mTouchAngle = mTouchTracker.getClampedAngle();
+		}
+		if (!applyAll && progress != INVALID_PROGRESS_VALUE
+				&& progress != mProgress) {
+			onProgressRefresh(progress, true);
 		}
-		angle -= mStartAngle;
-		return angle;
 	}
 
-	private int getProgressForAngle(double angle) {
-		int touchProgress = (int) Math.round(valuePerDegree() * angle);
-
-		touchProgress = (touchProgress < 0) ? INVALID_PROGRESS_VALUE
-				: touchProgress;
-		touchProgress = (touchProgress > mMax) ? INVALID_PROGRESS_VALUE
-				: touchProgress;
-		return touchProgress;
+	/**
+	 * Sets which positions in each touch event are turned into progress.
+	 * Android batches several positions into each move event; the default
+	 * only looks at the latest one, so a fast drag can skip values.
+	 * 
+	 * @param mode
+	 *            One of {@link #TOUCH_SAMPLES_LATEST} (the default),
+	 *            {@link #TOUCH_SAMPLES_ALL} or {@link #TOUCH_SAMPLES_NET}
+	 */
+	public void setTouchSampleMode(int mode) {
+		if (mode != TOUCH_SAMPLES_LATEST && mode != TOUCH_SAMPLES_ALL
+				&& mode != TOUCH_SAMPLES_NET) {
+			throw new IllegalArgumentException("Unknown touch sample mode "
+					+ mode);
+		}
+		mTouchSampleMode = mode;
 	}
 
-	private float valuePerDegree() {
-		return (float) mMax / mSweepAngle;
+	public int getTouchSampleMode() {
+		return mTouchSampleMode;
 	}
 
 	private void onProgressRefresh(int progress, boolean fromUser) {
+		if (mSnapToTicks) {
+			progress = mGeometry.snapProgress(progress);
+		}
 		updateProgress(progress, fromUser);
 	}
 
-	private void updateThumbPosition() {
-		int thumbAngle = (int) (mStartAngle + mProgressSweep + mRotation + 90);
-		mThumbXPos = (int) (mArcRadius * Math.cos(Math.toRadians(thumbAngle)));
-		mThumbYPos = (int) (mArcRadius * Math.sin(Math.toRadians(thumbAngle)));
-	}
-	
 	private void updateProgress(int progress, boolean fromUser) {
 
 		if (progress == INVALID_PROGRESS_VALUE) {
 			return;
 		}
 
-		progress = (progress > mMax) ? mMax : progress;
-		progress = (progress < 0) ? 0 : progress;
+		final int max = mGeometry.getMax();
+		progress = (progress > max) ? max : progress;
+		// In range mode the upper end can't pass the lower one
+		progress = (progress < mLowerProgress) ? mLowerProgress : progress;
+		if (mMetrics != null && progress == mProgress) {
+			mMetrics.countRedundantProgressUpdate();
+		}
 		mProgress = progress;
 
-		if (mOnSeekArcChangeListener != null) {
-			mOnSeekArcChangeListener
-					.onProgressChanged(this, progress, fromUser);
+		dispatchProgressChanged(progress, fromUser);
+		dispatchRangeChanged(fromUser);
+
+		final float oldSweep = mGeometry.getProgressSweep();
+		final float oldThumbX = mGeometry.getThumbCenterX();
+		final float oldThumbY = mGeometry.getThumbCenterY();
+
+		mGeometry.setProgress(progress);
+
+		invalidateProgress(oldSweep, oldThumbX, oldThumbY);
+		if (mBandColors != null) {
+			updateBandColor();
+		}
+		if (mLabelEnabled) {
+			updateLabel();
 		}
+	}
+
+	private void updateLowerProgress(int progress, boolean fromUser) {
+		progress = (progress > mProgress) ? mProgress : progress;
+		progress = (progress < 0) ? 0 : progress;
+		mLowerProgress = progress;
 
-		mProgressSweep = (float) progress / mMax * mSweepAngle;
+		dispatchRangeChanged(fromUser);
 
-		updateThumbPosition();
+		final float oldSweep = mGeometry.getLowerSweep();
+		final float oldThumbX = mGeometry.getLowerThumbCenterX();
+		final float oldThumbY = mGeometry.getLowerThumbCenterY();
 
-		invalidate();
+		mGeometry.setLowerProgress(progress);
+
+		final float outset = Math.max(mProgressWidth, mArcWidth) / 2f + 1;
+		if (ArcRenderer.getSweepChangeBounds(mGeometry, oldSweep,
+				mGeometry.getLowerSweep(), oldThumbX, oldThumbY,
+				mGeometry.getLowerThumbCenterX(),
+				mGeometry.getLowerThumbCenterY(), outset,
+				mEnabled ? mLowerThumb.getBounds() : null, mDirtyBounds)) {
+			invalidateDirtyBounds();
+		}
+	}
+
+	/**
+	 * Passes a change to either end of the range on to the range listener,
+	 * following the progress dispatch mode the same as
+	 * {@link #dispatchProgressChanged(int, boolean)}.
+	 */
+	private void dispatchRangeChanged(boolean fromUser) {
+		if (mOnSeekArcRangeChangeListener == null || !mGeometry.isRange()) {
+			return;
+		}
+		mDispatcher.dispatch(CHANNEL_RANGE, ((long) mLowerProgress << 32)
+				| (mProgress & 0xffffffffL), fromUser);
+	}
+
+	private void deliverRangeChanged(int lower, int upper, boolean fromUser) {
+		if (mOnSeekArcRangeChangeListener != null) {
+			final SeekArcMetrics metrics = mMetrics;
+			final long start = metrics != null ? System.nanoTime() : 0;
+			mOnSeekArcRangeChangeListener.onRangeChanged(this, lower, upper,
+					fromUser);
+			if (metrics != null) {
+				metrics.recordListener(System.nanoTime() - start);
+			}
+		}
+	}
+
+	/**
+	 * Invalidates only the area covering the change to the progress arc and
+	 * the old and new thumb positions. Nothing is invalidated if the
+	 * progress arc and thumb haven't moved.
+	 */
+	private void invalidateProgress(float oldSweep, float oldThumbX,
+			float oldThumbY) {
+		// Half the stroke either side of the arc plus a pixel for anti-aliasing
+		final float outset = Math.max(mProgressWidth, mArcWidth) / 2f + 1;
+		if (ArcRenderer.getSweepChangeBounds(mGeometry, oldSweep,
+				mGeometry.getProgressSweep(), oldThumbX, oldThumbY,
+				mGeometry.getThumbCenterX(), mGeometry.getThumbCenterY(),
+				outset, mEnabled ? mThumb.getBounds() : null, mDirtyBounds)) {
+			invalidateDirtyBounds();
+		}
+	}
+
+	private void invalidateDirtyBounds() {
+		if (mDirtyBounds[0] <= mDirtyBounds[2]
+				&& mDirtyBounds[1] <= mDirtyBounds[3]) {
+			invalidate((int) Math.floor(mDirtyBounds[0]),
+					(int) Math.floor(mDirtyBounds[1]),
+					(int) Math.ceil(mDirtyBounds[2]),
+					(int) Math.ceil(mDirtyBounds[3]));
+		} else {
+			// Not laid out yet or no sensible max
+			invalidate();
+		}
+		if (mMetrics != null) {
+			mMetrics.touchInvalidated();
+		}
+	}
+
+	private void dispatchProgressChanged(int progress, boolean fromUser) {
+		if (mListeners.isEmpty()) {
+			return;
+		}
+		mDispatcher.dispatch(CHANNEL_PROGRESS, progress, fromUser);
+	}
+
+	private void deliverProgressChanged(int progress, boolean fromUser) {
+		final SeekArcMetrics metrics = mMetrics;
+		final long start = metrics != null ? System.nanoTime() : 0;
+		final OnSeekArcChangeListener[] listeners = mListeners.get();
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].onProgressChanged(this, progress, fromUser);
+		}
+		if (metrics != null && listeners.length > 0) {
+			metrics.recordListener(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Delivers any progress held back for the next frame straight away.
+	 */
+	private void flushPendingProgress() {
+		mDispatcher.flushAll();
+	}
+
+	/**
+	 * Sets how progress changes are passed on to the
+	 * {@link OnSeekArcChangeListener}.
+	 * 
+	 * @param mode
+	 *            One of {@link #DISPATCH_IMMEDIATE} (the default),
+	 *            {@link #DISPATCH_DISTINCT} or {@link #DISPATCH_PER_FRAME}
+	 */
+	public void setProgressDispatchMode(int mode) {
+		mDispatcher.setMode(mode);
+	}
+
+	public int getProgressDispatchMode() {
+		return mDispatcher.getMode();
 	}
 
 	/**
@@ -463,24 +1222,311 @@ public class SeekArc extends View {
 	 * @see SeekArc.OnSeekBarChangeListener
 	 */
 	public void setOnSeekArcChangeListener(OnSeekArcChangeListener l) {
+		if (mOnSeekArcChangeListener != null) {
+			removeOnSeekArcChangeListener(mOnSeekArcChangeListener);
+		}
 		mOnSeekArcChangeListener = l;
+		if (l != null) {
+			addOnSeekArcChangeListener(l);
+		}
+	}
+
+	/**
+	 * Adds a listener alongside any others, including the one set with
+	 * {@link #setOnSeekArcChangeListener(OnSeekArcChangeListener)}. Listeners
+	 * are notified in the order they were added. Safe to call from inside a
+	 * callback, the change takes effect from the next notification.
+	 * 
+	 * @param l
+	 *            The listener to add, ignored if it is already added
+	 */
+	public void addOnSeekArcChangeListener(OnSeekArcChangeListener l) {
+		if (mListeners.add(l)) {
+			// A new listener hasn't seen any value yet
+			mDispatcher.forget(CHANNEL_PROGRESS);
+		}
+	}
+
+	/**
+	 * Removes a listener added with
+	 * {@link #addOnSeekArcChangeListener(OnSeekArcChangeListener)}, or one
+	 * set with an executor, which can be removed by the listener itself or
+	 * by its {@link ExecutorSeekArcChangeListener}. Safe to call from inside
+	 * a callback.
+	 * 
+	 * @param l
+	 *            The listener to remove
+	 */
+	public void removeOnSeekArcChangeListener(OnSeekArcChangeListener l) {
+		int index = mListeners.indexOf(l);
+		if (index < 0) {
+			index = indexOfWrapped(l);
+		}
+		if (index < 0) {
+			return;
+		}
+		if (mListeners.get()[index] == mOnSeekArcChangeListener) {
+			mOnSeekArcChangeListener = null;
+		}
+		mListeners.removeAt(index);
+	}
+
+	/**
+	 * @return The index of the executor wrapper delivering to the listener,
+	 *         or -1
+	 */
+	private int indexOfWrapped(OnSeekArcChangeListener l) {
+		final OnSeekArcChangeListener[] listeners = mListeners.get();
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] instanceof ExecutorSeekArcChangeListener
+					&& ((ExecutorSeekArcChangeListener) listeners[i])
+							.getListener() == l) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Sets a listener whose callbacks run on the given executor rather than
+	 * the UI thread. Progress the listener hasn't caught up with is replaced
+	 * by the latest value instead of being queued; start and stop
+	 * notifications keep their order. The listener can later be removed
+	 * with {@link #removeOnSeekArcChangeListener(OnSeekArcChangeListener)}
+	 * or by setting another.
+	 * 
+	 * @param l
+	 *            The seek bar notification listener
+	 * @param executor
+	 *            Where to run the listener callbacks
+	 * 
+	 * @see ExecutorSeekArcChangeListener
+	 */
+	public void setOnSeekArcChangeListener(OnSeekArcChangeListener l,
+			Executor executor) {
+		setOnSeekArcChangeListener(l == null ? null
+				: new ExecutorSeekArcChangeListener(l, executor));
 	}
 
 	public void setProgress(int progress) {
+		cancelAnimation(ANIMATE_PROGRESS);
 		updateProgress(progress, false);
 	}
 
+	/**
+	 * Sets the progress, optionally animating to it. An animation already in
+	 * flight is retargeted from its current position and speed. The
+	 * listener is told about each intermediate value.
+	 * 
+	 * @param progress
+	 *            The new progress
+	 * @param animate
+	 *            True to animate to the new progress
+	 */
+	public void setProgress(int progress, boolean animate) {
+		if (!animate) {
+			setProgress(progress);
+			return;
+		}
+		final int max = mGeometry.getMax();
+		progress = (progress > max) ? max : progress;
+		progress = (progress < 0) ? 0 : progress;
+		animateTo(ANIMATE_PROGRESS, mProgress, progress);
+	}
+
+	/**
+	 * Sets the progress from any thread. The value is stored and applied on
+	 * the UI thread at the next display frame; if several values arrive
+	 * before then only the latest is applied. Nothing is allocated per call,
+	 * so this can be fed directly from high rate sensor or network threads
+	 * instead of posting a Runnable per sample.
+	 * 
+	 * @param progress
+	 *            The new progress, clamped to 0..max when applied
+	 */
+	public void postProgress(int progress) {
+		mPostedProgress.set(progress);
+		postFrames().schedule();
+	}
+
+	private FrameScheduler postFrames() {
+		FrameScheduler frames = mPostFrames;
+		if (frames != null) {
+			return frames;
+		}
+		synchronized (mPostedProgress) {
+			if (mPostFrames == null) {
+				mPostFrames = new FrameScheduler(new FrameScheduler.Callback() {
+					@Override
+					public void doFrame(long frameTimeNanos) {
+						int progress = mPostedProgress
+								.getAndSet(NO_POSTED_PROGRESS);
+						if (progress != NO_POSTED_PROGRESS) {
+							cancelAnimation(ANIMATE_PROGRESS);
+							updateProgress(progress, false);
+						}
+					}
+				});
+			}
+			return mPostFrames;
+		}
+	}
+
 	public int getProgress() {
 		return mProgress;
 	}
 
+	/**
+	 * Turns range mode on or off. In range mode a second thumb sets the
+	 * lower end of the range, {@link #getProgress()} is the upper end and
+	 * the progress arc is drawn between them. A touch moves whichever thumb
+	 * is nearer and the thumbs can't pass each other. Fling and touch
+	 * prediction don't apply in range mode. Each thumb can be dragged by its
+	 * own finger at the same time. Turning it off puts the lower
+	 * end back to 0.
+	 */
+	public void setRangeEnabled(boolean enabled) {
+		if (enabled == mGeometry.isRange()) {
+			return;
+		}
+		if (enabled && mLowerThumb == null) {
+			mLowerThumb = mStyle.newThumb(getResources());
+			mLowerThumb.setState(getDrawableState());
+			mRangeTrackers[RANGE_UPPER] = mTouchTracker;
+			mRangeTrackers[RANGE_LOWER] = new ArcTouchTracker(mGeometry);
+		}
+		cancelFling();
+		mLowerProgress = 0;
+		mGeometry.setRange(enabled);
+		invalidate();
+	}
+
+	public boolean isRangeEnabled() {
+		return mGeometry.isRange();
+	}
+
+	/**
+	 * Sets both ends of the range. Only has an effect in range mode.
+	 * 
+	 * @see #setRangeEnabled(boolean)
+	 */
+	public void setRange(int lower, int upper) {
+		if (!mGeometry.isRange()) {
+			return;
+		}
+		cancelAnimation(ANIMATE_PROGRESS);
+		final int max = mGeometry.getMax();
+		upper = (upper > max) ? max : (upper < 0) ? 0 : upper;
+		lower = (lower > upper) ? upper : (lower < 0) ? 0 : lower;
+		// Move the lower end first so the listener hears about both at once
+		mLowerProgress = lower;
+		mGeometry.setLowerProgress(lower);
+		updateProgress(upper, false);
+		invalidate();
+	}
+
+	public int getLowerProgress() {
+		return mLowerProgress;
+	}
+
+	public void setOnSeekArcRangeChangeListener(OnSeekArcRangeChangeListener l) {
+		mOnSeekArcRangeChangeListener = l;
+		// A new listener hasn't seen any range yet
+		mDispatcher.forget(CHANNEL_RANGE);
+	}
+
+	/**
+	 * Turns endless mode on or off. In endless mode the arc works like a
+	 * rotary encoder: each full turn of the finger adds
+	 * {@link #setValuesPerTurn(int) values per turn} to a 64 bit value
+	 * reported to the {@link OnSeekArcEndlessChangeListener}, with no upper
+	 * limit. The progress sweep shows the position within the current turn.
+	 * Progress, range, fling and prediction don't apply in endless mode.
+	 */
+	public void setEndless(boolean endless) {
+		if (endless == mEndless) {
+			return;
+		}
+		if (endless && mAccumulator == null) {
+			mAccumulator = new RotaryAccumulator(mGeometry.getMax());
+		}
+		cancelFling();
+		cancelAnimation(ANIMATE_PROGRESS);
+		mEndless = endless;
+		if (endless) {
+			updateEndlessSweep();
+		} else {
+			mGeometry.setProgress(mProgress);
+			invalidate();
+		}
+		if (mLabelEnabled) {
+			updateLabel();
+		}
+	}
+
+	public boolean isEndless() {
+		return mEndless;
+	}
+
+	/**
+	 * Sets how much the endless value changes for one full turn. Defaults
+	 * to the max when endless mode is first turned on.
+	 */
+	public void setValuesPerTurn(int valuesPerTurn) {
+		if (mAccumulator == null) {
+			mAccumulator = new RotaryAccumulator(valuesPerTurn);
+		} else {
+			mAccumulator.setValuesPerTurn(valuesPerTurn);
+		}
+		if (mEndless) {
+			updateEndlessSweep();
+		}
+	}
+
+	public int getValuesPerTurn() {
+		return mAccumulator != null ? mAccumulator.getValuesPerTurn()
+				: mGeometry.getMax();
+	}
+
+	public long getEndlessValue() {
+		return mAccumulator != null ? mAccumulator.getValue() : 0;
+	}
+
+	public void setEndlessValue(long value) {
+		if (mAccumulator == null) {
+			mAccumulator = new RotaryAccumulator(mGeometry.getMax());
+		}
+		mAccumulator.setValue(value);
+		if (mEndless) {
+			onEndlessValueChanged(false);
+		}
+	}
+
+	/**
+	 * Limits the endless value. Unbounded by default.
+	 */
+	public void setEndlessBounds(long min, long max) {
+		if (mAccumulator == null) {
+			mAccumulator = new RotaryAccumulator(mGeometry.getMax());
+		}
+		mAccumulator.setBounds(min, max);
+		if (mEndless) {
+			onEndlessValueChanged(false);
+		}
+	}
+
+	public void setOnSeekArcEndlessChangeListener(
+			OnSeekArcEndlessChangeListener l) {
+		mOnSeekArcEndlessChangeListener = l;
+	}
+
 	public int getProgressWidth() {
 		return mProgressWidth;
 	}
 
 	public void setProgressWidth(int mProgressWidth) {
 		this.mProgressWidth = mProgressWidth;
-		mProgressPaint.setStrokeWidth(mProgressWidth);
+		mutableProgressPaint().setStrokeWidth(mProgressWidth);
 	}
 	
 	public int getArcWidth() {
@@ -489,65 +1535,194 @@ public class SeekArc extends View {
 
 	public void setArcWidth(int mArcWidth) {
 		this.mArcWidth = mArcWidth;
-		mArcPaint.setStrokeWidth(mArcWidth);
+		mutableArcPaint().setStrokeWidth(mArcWidth);
+		invalidateTrack();
 	}
 	public int getArcRotation() {
-		return mRotation;
+		return mGeometry.getRotation();
 	}
 
 	public void setArcRotation(int mRotation) {
-		this.mRotation = mRotation;
-		updateThumbPosition();
+		cancelAnimation(ANIMATE_ROTATION);
+		applyArcRotation(mRotation);
+	}
+
+	/**
+	 * Sets the rotation, optionally animating to it.
+	 * 
+	 * @see #setProgress(int, boolean)
+	 */
+	public void setArcRotation(int rotation, boolean animate) {
+		if (animate) {
+			animateTo(ANIMATE_ROTATION, mGeometry.getRotation(), rotation);
+		} else {
+			setArcRotation(rotation);
+		}
+	}
+
+	private void applyArcRotation(int rotation) {
+		mGeometry.setRotation(rotation);
+		mGeometry.updateThumbPosition();
+		invalidateTrack();
 	}
 
 	public int getStartAngle() {
-		return mStartAngle;
+		return mGeometry.getStartAngle();
 	}
 
 	public void setStartAngle(int mStartAngle) {
-		this.mStartAngle = mStartAngle;
-		updateThumbPosition();
+		cancelAnimation(ANIMATE_START);
+		applyStartAngle(mStartAngle);
+	}
+
+	/**
+	 * Sets the start angle, optionally animating to it.
+	 * 
+	 * @see #setProgress(int, boolean)
+	 */
+	public void setStartAngle(int startAngle, boolean animate) {
+		if (animate) {
+			animateTo(ANIMATE_START, mGeometry.getStartAngle(), startAngle);
+		} else {
+			setStartAngle(startAngle);
+		}
+	}
+
+	private void applyStartAngle(int startAngle) {
+		mGeometry.setStartAngle(startAngle);
+		mGeometry.updateThumbPosition();
+		invalidateTrack();
 	}
 
 	public int getSweepAngle() {
-		return mSweepAngle;
+		return mGeometry.getSweepAngle();
 	}
 
 	public void setSweepAngle(int mSweepAngle) {
-		this.mSweepAngle = mSweepAngle;
-		updateThumbPosition();
+		cancelAnimation(ANIMATE_SWEEP);
+		applySweepAngle(mSweepAngle);
+	}
+
+	/**
+	 * Sets the sweep angle, optionally animating to it.
+	 * 
+	 * @see #setProgress(int, boolean)
+	 */
+	public void setSweepAngle(int sweepAngle, boolean animate) {
+		if (animate) {
+			animateTo(ANIMATE_SWEEP, mGeometry.getSweepAngle(), sweepAngle);
+		} else {
+			setSweepAngle(sweepAngle);
+		}
+	}
+
+	private void applySweepAngle(int sweepAngle) {
+		// An animation retargeted mid flight can overshoot either end
+		sweepAngle = (sweepAngle > 360) ? 360 : sweepAngle;
+		sweepAngle = (sweepAngle < 0) ? 0 : sweepAngle;
+		mGeometry.setSweepAngle(sweepAngle);
+		mGeometry.updateThumbPosition();
+		invalidateTrack();
+	}
+
+	public long getAnimationDuration() {
+		return mAnimationDuration;
+	}
+
+	/**
+	 * Sets how long the animated setters take, in milliseconds. Applies to
+	 * animations started after this call. The default is
+	 * {@link ArcAnimator#DEFAULT_DURATION_MS}.
+	 */
+	public void setAnimationDuration(long durationMs) {
+		if (durationMs <= 0) {
+			throw new IllegalArgumentException("Duration must be greater than 0");
+		}
+		mAnimationDuration = durationMs;
+		if (mAnimator != null) {
+			mAnimator.setDurationMs(durationMs);
+		}
+	}
+
+	private void animateTo(int channel, int current, int target) {
+		if (mAnimator == null) {
+			mAnimator = new ArcAnimator(4);
+			mAnimator.setDurationMs(mAnimationDuration);
+			mAnimationFrames = new FrameScheduler(new FrameScheduler.Callback() {
+				@Override
+				public void doFrame(long frameTimeNanos) {
+					onAnimationFrame(frameTimeNanos);
+				}
+			});
+		}
+		mAnimator.animateTo(channel, current, target, System.nanoTime());
+		mAnimationFrames.schedule();
+	}
+
+	/**
+	 * The channel's value as an int, saturating if an overshoot goes past
+	 * the int range
+	 */
+	private int roundChannel(int channel) {
+		final long value = Math.round(mAnimator.getValue(channel));
+		return (int) Math.max(Integer.MIN_VALUE,
+				Math.min(Integer.MAX_VALUE, value));
+	}
+
+	private void cancelAnimation(int channel) {
+		if (mAnimator != null) {
+			mAnimator.cancel(channel);
+		}
+	}
+
+	private void onAnimationFrame(long frameTimeNanos) {
+		// Note which channels move this frame before stepping ends them
+		final boolean sweep = mAnimator.isActive(ANIMATE_SWEEP);
+		final boolean start = mAnimator.isActive(ANIMATE_START);
+		final boolean rotation = mAnimator.isActive(ANIMATE_ROTATION);
+		final boolean progress = mAnimator.isActive(ANIMATE_PROGRESS);
+		final boolean running = mAnimator.step(frameTimeNanos);
+
+		if (sweep) {
+			applySweepAngle(roundChannel(ANIMATE_SWEEP));
+		}
+		if (start) {
+			applyStartAngle(roundChannel(ANIMATE_START));
+		}
+		if (rotation) {
+			applyArcRotation(roundChannel(ANIMATE_ROTATION));
+		}
+		if (progress) {
+			updateProgress(roundChannel(ANIMATE_PROGRESS),
+					false);
+		}
+		if (running) {
+			mAnimationFrames.schedule();
+		}
 	}
 	
 	public void setRoundedEdges(boolean isEnabled) {
 		mRoundedEdges = isEnabled;
-		if (mRoundedEdges) {
-			mArcPaint.setStrokeCap(Paint.Cap.ROUND);
-			mProgressPaint.setStrokeCap(Paint.Cap.ROUND);
-		} else {
-			mArcPaint.setStrokeCap(Paint.Cap.SQUARE);
-			mProgressPaint.setStrokeCap(Paint.Cap.SQUARE);
-		}
+		final Paint.Cap cap = mRoundedEdges ? Paint.Cap.ROUND : Paint.Cap.SQUARE;
+		mutableArcPaint().setStrokeCap(cap);
+		mutableProgressPaint().setStrokeCap(cap);
+		invalidateTrack();
 	}
 	
 	public void setTouchInSide(boolean isEnabled) {
 		int thumbHalfheight = (int) mThumb.getIntrinsicHeight() / 2;
 		int thumbHalfWidth = (int) mThumb.getIntrinsicWidth() / 2;
 		mTouchInside = isEnabled;
-		if (mTouchInside) {
-			mTouchIgnoreRadius = (float) mArcRadius / 4;
-		} else {
-			// Don't use the exact radius makes interaction too tricky
-			mTouchIgnoreRadius = mArcRadius
-					- Math.min(thumbHalfWidth, thumbHalfheight);
-		}
+		mGeometry.setTouchInside(mTouchInside, thumbHalfWidth, thumbHalfheight);
 	}
 	
 	public void setClockwise(boolean isClockwise) {
-		mClockwise = isClockwise;
+		mGeometry.setClockwise(isClockwise);
+		invalidateTrack();
 	}
 
 	public boolean isClockwise() {
-		return mClockwise;
+		return mGeometry.isClockwise();
 	}
 
 	public boolean isEnabled() {
@@ -562,9 +1737,129 @@ public class SeekArc extends View {
 		return mProgressPaint.getColor();
 	}
 
+	/**
+	 * Sets the solid progress colour. While colour bands are set this is
+	 * the colour they go back to when cleared.
+	 */
 	public void setProgressColor(int color) {
-		mProgressPaint.setColor(color);
-		invalidate();
+		if (mBandColors != null) {
+			mSolidProgressColor = color;
+			return;
+		}
+		mutableProgressPaint().setColor(color);
+		invalidateProgressArc();
+	}
+
+	/**
+	 * Invalidates the area covered by the progress arc, for when only its
+	 * colour changes.
+	 */
+	private void invalidateProgressArc() {
+		final float outset = mProgressWidth / 2f + 1;
+		mGeometry.getSweepBounds(mGeometry.getLowerSweep(),
+				mGeometry.getProgressSweep(), outset, mDirtyBounds);
+		if (mDirtyBounds[0] <= mDirtyBounds[2]
+				&& mDirtyBounds[1] <= mDirtyBounds[3]) {
+			invalidate((int) Math.floor(mDirtyBounds[0]),
+					(int) Math.floor(mDirtyBounds[1]),
+					(int) Math.ceil(mDirtyBounds[2]),
+					(int) Math.ceil(mDirtyBounds[3]));
+		} else {
+			invalidate();
+		}
+	}
+
+	/**
+	 * Draws the progress arc with a gradient that runs along the sweep, the
+	 * first colour at the start of the arc and the last at the end.
+	 * Replaces any colour bands. Null to go back to a solid colour.
+	 * 
+	 * @param colors
+	 *            At least two colours
+	 * @param stops
+	 *            Where each colour sits along the sweep, 0..1 and
+	 *            increasing, or null to space them evenly
+	 */
+	public void setProgressGradient(int[] colors, float[] stops) {
+		clearColorBands();
+		if (colors == null) {
+			mProgressGradient = null;
+			if (mProgressPaint.getShader() != null) {
+				mutableProgressPaint().setShader(null);
+			}
+		} else {
+			mProgressGradient = new ArcGradient(colors, stops);
+			// The gradient is put on the paint at the next draw
+			mutableProgressPaint();
+		}
+		invalidateProgressArc();
+	}
+
+	/**
+	 * @see #setProgressGradient(int[], float[])
+	 */
+	public void setProgressGradient(int[] colors) {
+		setProgressGradient(colors, null);
+	}
+
+	/**
+	 * Colours the whole progress arc by the band the progress falls in,
+	 * e.g. green, then amber, then red as the value rises. Only the paint
+	 * colour changes when the progress crosses a threshold. Replaces any
+	 * gradient. Null to go back to a solid colour.
+	 * 
+	 * @param thresholds
+	 *            The progress at which each band starts, strictly
+	 *            increasing. Values below the first threshold use the first
+	 *            colour.
+	 * @param colors
+	 *            The colour of each band
+	 */
+	public void setProgressColorBands(int[] thresholds, int[] colors) {
+		if (thresholds == null || colors == null) {
+			clearColorBands();
+			return;
+		}
+		if (thresholds.length == 0 || thresholds.length != colors.length) {
+			throw new IllegalArgumentException(
+					"Need a colour for each threshold");
+		}
+		for (int i = 1; i < thresholds.length; i++) {
+			if (thresholds[i] <= thresholds[i - 1]) {
+				throw new IllegalArgumentException(
+						"Thresholds must be increasing");
+			}
+		}
+		setProgressGradient(null);
+		mSolidProgressColor = mProgressPaint.getColor();
+		mBandThresholds = thresholds.clone();
+		mBandColors = colors.clone();
+		updateBandColor();
+	}
+
+	private void clearColorBands() {
+		if (mBandColors == null) {
+			return;
+		}
+		mBandThresholds = null;
+		mBandColors = null;
+		if (mProgressPaint.getColor() != mSolidProgressColor) {
+			mutableProgressPaint().setColor(mSolidProgressColor);
+			invalidateProgressArc();
+		}
+	}
+
+	private void updateBandColor() {
+		int band = Arrays.binarySearch(mBandThresholds, mProgress);
+		if (band < 0) {
+			// Not on a threshold, take the band below the insertion point
+			band = Math.max(-band - 2, 0);
+		}
+		final int color = mBandColors[band];
+		if (color != mProgressPaint.getColor()) {
+			mutableProgressPaint().setColor(color);
+			invalidateProgressArc();
+		}
 	}
 
 	public int getArcColor() {
@@ -572,15 +1867,407 @@ public class SeekArc extends View {
 	}
 
 	public void setArcColor(int color) {
-		mArcPaint.setColor(color);
+		mutableArcPaint().setColor(color);
+		invalidateTrack();
+	}
+
+	/**
+	 * Returns the style this SeekArc was created from. Changes made through
+	 * the setters since then are not reflected in it.
+	 */
+	public SeekArcStyle getStyle() {
+		return mStyle;
+	}
+
+	// The style's paints are shared, so take a copy before the first change
+	private Paint mutableArcPaint() {
+		if (mArcPaint == mStyle.arcPaint) {
+			mArcPaint = new Paint(mArcPaint);
+		}
+		return mArcPaint;
+	}
+
+	private Paint mutableProgressPaint() {
+		if (mProgressPaint == mStyle.progressPaint) {
+			mProgressPaint = new Paint(mProgressPaint);
+		}
+		return mProgressPaint;
+	}
+
+	public boolean isFastMath() {
+		return mGeometry.isFastMath();
+	}
+
+	/**
+	 * Trades exact trigonometry for a precomputed sine/cosine table and an
+	 * atan2 approximation on the touch and thumb positioning paths. Off by
+	 * default.
+	 * 
+	 * @param fastMath
+	 *            True to use the lookup table
+	 */
+	public void setFastMath(boolean fastMath) {
+		mGeometry.setFastMath(fastMath);
 		invalidate();
 	}
 
+	public int getTickCount() {
+		return mGeometry.getTickCount();
+	}
+
+	/**
+	 * Divides the sweep into equal parts with a tick mark at each division,
+	 * including both ends. The ticks are drawn across the background arc in
+	 * the arc colour unless changed. 0, the default, for no ticks.
+	 * 
+	 * @see #setSnapToTicks(boolean)
+	 */
+	public void setTickCount(int tickCount) {
+		mGeometry.setTickCount(tickCount);
+		if (tickCount > 0 && mTicks == null) {
+			final Paint paint = new Paint(mArcPaint);
+			paint.setStrokeCap(Paint.Cap.BUTT);
+			if (mTickColorSet) {
+				paint.setColor(mTickColor);
+			}
+			if (mTickWidth >= 0) {
+				paint.setStrokeWidth(mTickWidth);
+			}
+			mTicks = new ArcTicks(paint, mTickLength >= 0 ? mTickLength
+					: Math.max(mArcWidth, mProgressWidth) * 2);
+		}
+		invalidateTrack();
+	}
+
+	public boolean isSnapToTicks() {
+		return mSnapToTicks;
+	}
+
+	/**
+	 * Makes the ticks detents: progress from touches snaps to the nearest
+	 * tick. Off by default.
+	 */
+	public void setSnapToTicks(boolean snap) {
+		mSnapToTicks = snap;
+	}
+
+	/**
+	 * Sets the tick colour. Defaults to the arc colour.
+	 */
+	public void setTickColor(int color) {
+		mTickColor = color;
+		mTickColorSet = true;
+		if (mTicks != null) {
+			mTicks.getPaint().setColor(color);
+			invalidateTrack();
+		}
+	}
+
+	/**
+	 * Sets the tick line width in pixels. Defaults to the arc width.
+	 */
+	public void setTickWidth(int width) {
+		mTickWidth = width;
+		if (mTicks != null) {
+			mTicks.getPaint().setStrokeWidth(width);
+			invalidateTrack();
+		}
+	}
+
+	/**
+	 * Sets how far each tick reaches across the arc, in pixels, centred on
+	 * it. Defaults to twice the wider of the arc and progress widths.
+	 */
+	public void setTickLength(int length) {
+		mTickLength = length;
+		if (mTicks != null) {
+			mTicks.setLength(length);
+			invalidateTrack();
+		}
+	}
+
+	public ValueScale getValueScale() {
+		return mGeometry.getValueScale();
+	}
+
+	/**
+	 * Sets how the position of the thumb maps to progress, e.g.
+	 * {@link ValueScale#log(int)} so each doubling of the value takes the
+	 * same turn. The max becomes the scale's max, and {@link #setMax(int)}
+	 * only accepts that max while the scale is set. Null, the default, maps
+	 * linearly and keeps the current max.
+	 */
+	public void setValueScale(ValueScale scale) {
+		mGeometry.setValueScale(scale);
+		final int max = mGeometry.getMax();
+		mProgress = (mProgress > max) ? max : mProgress;
+		if (!mEndless) {
+			mGeometry.setProgress(mProgress);
+		}
+		if (mLabelEnabled) {
+			mLabel.setValue(labelValue());
+		}
+		invalidate();
+	}
+
+	/**
+	 * Starts or stops recording draw, measure, touch and listener timings.
+	 * Turning metrics off drops everything recorded so far. Off by default.
+	 * 
+	 * @see #getMetrics()
+	 */
+	public void setMetricsEnabled(boolean enabled) {
+		if (enabled && mMetrics == null) {
+			mMetrics = new SeekArcMetrics();
+		} else if (!enabled) {
+			mMetrics = null;
+		}
+	}
+
+	public boolean isMetricsEnabled() {
+		return mMetrics != null;
+	}
+
+	/**
+	 * @return The metrics recorded so far, or null if they are off. Read
+	 *         them on the UI thread.
+	 */
+	public SeekArcMetrics getMetrics() {
+		return mMetrics;
+	}
+
+	public boolean isLabelEnabled() {
+		return mLabelEnabled;
+	}
+
+	/**
+	 * Shows the progress, or the accumulated value when endless, as text in
+	 * the centre of the arc. Off by default.
+	 * 
+	 * @see #setLabelFormatter(LabelFormatter)
+	 */
+	public void setLabelEnabled(boolean enabled) {
+		mLabelEnabled = enabled;
+		if (enabled) {
+			label().setValue(labelValue());
+		}
+		invalidate();
+	}
+
+	/**
+	 * Sets how the label value is turned into text. Null, the default,
+	 * writes the value as a plain decimal number.
+	 */
+	public void setLabelFormatter(LabelFormatter formatter) {
+		final ArcLabel label = label();
+		label.setFormatter(formatter);
+		label.setValue(labelValue());
+		invalidate();
+	}
+
+	/**
+	 * Sets the label text size in pixels. Defaults to 24sp.
+	 */
+	public void setLabelTextSize(float size) {
+		final ArcLabel label = label();
+		label.getPaint().setTextSize(size);
+		label.invalidateMetrics();
+		invalidate();
+	}
+
+	public void setLabelTypeface(Typeface typeface) {
+		final ArcLabel label = label();
+		label.getPaint().setTypeface(typeface);
+		label.invalidateMetrics();
+		invalidate();
+	}
+
+	/**
+	 * Sets the label colour. Defaults to the progress colour at the time the
+	 * label is first set up.
+	 */
+	public void setLabelColor(int color) {
+		label().getPaint().setColor(color);
+		invalidate();
+	}
+
+	private ArcLabel label() {
+		if (mLabel == null) {
+			final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+			paint.setColor(mProgressPaint.getColor());
+			paint.setTextSize(24 * getResources().getDisplayMetrics().scaledDensity);
+			mLabel = new ArcLabel(paint);
+		}
+		return mLabel;
+	}
+
+	private long labelValue() {
+		return mEndless ? mAccumulator.getValue() : mProgress;
+	}
+
+	/**
+	 * Reformats the label and invalidates the area covering both the old
+	 * and new text, if the value has changed.
+	 */
+	private void updateLabel() {
+		final float oldHalfWidth = mLabel.getHalfWidth();
+		if (!mLabel.setValue(labelValue())) {
+			return;
+		}
+		final float halfWidth = Math.max(oldHalfWidth, mLabel.getHalfWidth()) + 1;
+		final float halfHeight = mLabel.getHalfHeight() + 1;
+		final int cx = mGeometry.getTranslateX();
+		final int cy = mGeometry.getTranslateY();
+		invalidate((int) Math.floor(cx - halfWidth),
+				(int) Math.floor(cy - halfHeight),
+				(int) Math.ceil(cx + halfWidth),
+				(int) Math.ceil(cy + halfHeight));
+	}
+
+	public boolean isPrecise() {
+		return mGeometry.isPrecise();
+	}
+
+	/**
+	 * Maps touches to progress in double precision and draws the thumb at
+	 * sub-pixel positions, so every progress value stays reachable with a
+	 * large max (up to {@link Integer#MAX_VALUE}). Takes priority over
+	 * {@link #setFastMath(boolean)}. Off by default.
+	 * 
+	 * @param precise
+	 *            True for double precision progress math
+	 */
+	public void setPrecise(boolean precise) {
+		mGeometry.setPrecise(precise);
+		if (!mEndless) {
+			mGeometry.setProgress(mProgress);
+		}
+		invalidate();
+	}
+
+	public boolean isCachedTrack() {
+		return mCachedTrack;
+	}
+
+	/**
+	 * Renders the background arc once into an offscreen bitmap the size of
+	 * the view and reuses it every frame, so only the progress arc and
+	 * thumb are stroked per frame. The bitmap is re-rendered when the size,
+	 * angles, widths or arc color change. Costs width * height * 4 bytes
+	 * while enabled.
+	 * 
+	 * @param cachedTrack
+	 *            True to cache the background arc
+	 */
+	public void setCachedTrack(boolean cachedTrack) {
+		mCachedTrack = cachedTrack;
+		if (!mCachedTrack) {
+			releaseTrackCache();
+		}
+		invalidateTrack();
+	}
+
+	public boolean isFlingEnabled() {
+		return mFlingEnabled;
+	}
+
+	/**
+	 * Lets the thumb carry on along the arc after a quick release, slowing
+	 * under friction until it stops or reaches the end of the sweep. A new
+	 * touch catches it. While the thumb is moving progress changes are
+	 * reported as from the user and onStopTrackingTouch is sent once it
+	 * comes to rest. Off by default.
+	 * 
+	 * @param flingEnabled
+	 *            True to enable flinging
+	 */
+	public void setFlingEnabled(boolean flingEnabled) {
+		if (!flingEnabled) {
+			cancelFling();
+		} else if (mFling == null) {
+			mVelocityTracker = new AngularVelocityTracker();
+			mFling = new ArcFling();
+			mFling.setFriction(mFlingFriction);
+			mFlingFrames = new FrameScheduler(new FrameScheduler.Callback() {
+				@Override
+				public void doFrame(long frameTimeNanos) {
+					onFlingFrame(frameTimeNanos);
+				}
+			});
+		}
+		mFlingEnabled = flingEnabled;
+	}
+
+	public float getFlingFriction() {
+		return mFlingFriction;
+	}
+
+	/**
+	 * Sets how quickly a fling slows down. The velocity decays by a factor
+	 * of e every 1 / friction seconds, the default is
+	 * {@link ArcFling#DEFAULT_FRICTION}.
+	 * 
+	 * @param friction
+	 *            The friction, must be greater than 0
+	 */
+	public void setFlingFriction(float friction) {
+		if (friction <= 0) {
+			throw new IllegalArgumentException("Friction must be greater than 0");
+		}
+		mFlingFriction = friction;
+		if (mFling != null) {
+			mFling.setFriction(friction);
+		}
+	}
+
+	public boolean isTouchPredictionEnabled() {
+		return mTouchPrediction;
+	}
+
+	/**
+	 * Draws the progress and thumb where the finger is expected to be by the
+	 * time the frame is shown, based on its recent angular velocity, to hide
+	 * some of the touch to display latency during a drag. The listener and
+	 * {@link #getProgress()} still only report the real, unpredicted value.
+	 * Off by default.
+	 * 
+	 * @param enabled
+	 *            True to enable prediction
+	 */
+	public void setTouchPredictionEnabled(boolean enabled) {
+		if (!enabled) {
+			clearPrediction();
+		} else if (mPredictor == null) {
+			mPredictor = new TouchPredictor();
+		}
+		mTouchPrediction = enabled;
+	}
+
+	public long getTouchPredictionLookahead() {
+		return mPredictionLookahead;
+	}
+
+	/**
+	 * Sets how far ahead the touch prediction looks, in milliseconds. The
+	 * default of 16ms is one frame at 60Hz.
+	 */
+	public void setTouchPredictionLookahead(long lookaheadMs) {
+		if (lookaheadMs < 0) {
+			throw new IllegalArgumentException("Lookahead must not be negative");
+		}
+		mPredictionLookahead = lookaheadMs;
+	}
+
 	public int getMax() {
-		return mMax;
+		return mGeometry.getMax();
 	}
 
+	/**
+	 * @throws IllegalStateException
+	 *             If a value scale is set with a different max
+	 * @see #setValueScale(ValueScale)
+	 */
 	public void setMax(int mMax) {
-		this.mMax = mMax;
+		mGeometry.setMax(mMax);
 	}
 }
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+
+import com.triggertrap.seekarc.geometry.ArcGeometry;
+
+/**
+ * 
+ * SeekArcDrawable.java
+ * 
+ * A read-only SeekArc as a Drawable, for arcs that only show a value. It
+ * draws exactly what a SeekArc with the same style draws but has no
+ * measure, layout or touch handling of its own, so it can be used as a
+ * background, in an ImageView or drawn into a bitmap for RemoteViews.
+ * 
+ * Progress can be set directly or through the drawable level, where 0 is
+ * the start of the arc and 10000 is the end.
+ * 
+ * The intrinsic size is a {@value #DEFAULT_ARC_DIAMETER_DP}dp arc plus the
+ * padding, so it has a size in a wrap_content ImageView. Set bounds or give
+ * the view a size for any other arc size.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class SeekArcDrawable extends Drawable {
+
+	private static final int MAX_LEVEL = 10000;
+
+	/**
+	 * The arc diameter the intrinsic size is based on
+	 */
+	public static final int DEFAULT_ARC_DIAMETER_DP = 96;
+
+	private final SeekArcStyle mStyle;
+	private final ArcGeometry mGeometry = new ArcGeometry();
+	private final RectF mArcRect = new RectF();
+	private Paint mArcPaint;
+	private Paint mProgressPaint;
+	private final Drawable mThumb;
+	private boolean mThumbVisible;
+	private int mProgress;
+	private int mPaddingLeft;
+	private int mPaddingTop;
+	private int mPaddingRight;
+	private int mPaddingBottom;
+	private final int mDefaultArcDiameter;
+
+	/**
+	 * Creates a drawable with the library's default style.
+	 */
+	public SeekArcDrawable(Context context) {
+		this(context.getResources(), SeekArcStyle.obtain(context, 0));
+	}
+
+	public SeekArcDrawable(Context context, int styleRes) {
+		this(context.getResources(), SeekArcStyle.obtain(context, styleRes));
+	}
+
+	public SeekArcDrawable(Resources res, SeekArcStyle style) {
+		mStyle = style;
+		mThumb = style.newThumb(res);
+		mDefaultArcDiameter = Math.round(DEFAULT_ARC_DIAMETER_DP
+				* res.getDisplayMetrics().density);
+		// As with a disabled SeekArc the thumb is hidden unless enabled
+		mThumbVisible = style.enabled;
+		mProgress = style.progress;
+
+		mGeometry.setMax(style.max);
+		mGeometry.setStartAngle(style.startAngle);
+		mGeometry.setSweepAngle(style.sweepAngle);
+		mGeometry.setRotation(style.rotation);
+		mGeometry.setClockwise(style.clockwise);
+		mGeometry.setProgress(mProgress);
+
+		// Shared with the style until changed
+		mArcPaint = style.arcPaint;
+		mProgressPaint = style.progressPaint;
+
+		// Keep the strokes and thumb inside the bounds by default
+		int inset = (Math.max(style.progressWidth, style.arcWidth) + 1) / 2;
+		if (mThumbVisible) {
+			inset = Math.max(inset,
+					Math.max(style.thumbHalfWidth, style.thumbHalfHeight));
+		}
+		mPaddingLeft = mPaddingTop = mPaddingRight = mPaddingBottom = inset;
+	}
+
+	@Override
+	public void draw(Canvas canvas) {
+		final Rect bounds = getBounds();
+		final int saveCount = canvas.save();
+		canvas.translate(bounds.left, bounds.top);
+		ArcRenderer.draw(canvas, mGeometry, mArcRect, mArcPaint, null,
+				mProgressPaint, mThumbVisible ? mThumb : null, null);
+		canvas.restoreToCount(saveCount);
+	}
+
+	@Override
+	public int getIntrinsicWidth() {
+		return mDefaultArcDiameter + mPaddingLeft + mPaddingRight;
+	}
+
+	@Override
+	public int getIntrinsicHeight() {
+		return mDefaultArcDiameter + mPaddingTop + mPaddingBottom;
+	}
+
+	@Override
+	protected void onBoundsChange(Rect bounds) {
+		layoutArc();
+	}
+
+	private void layoutArc() {
+		final Rect bounds = getBounds();
+		if (mGeometry.setSize(bounds.width(), bounds.height(), mPaddingLeft,
+				mPaddingTop, mPaddingRight, mPaddingBottom)) {
+			mArcRect.set(mGeometry.getArcLeft(), mGeometry.getArcTop(),
+					mGeometry.getArcRight(), mGeometry.getArcBottom());
+		}
+	}
+
+	@Override
+	protected boolean onLevelChange(int level) {
+		final float fraction = (float) level / MAX_LEVEL;
+		mProgress = Math.round(fraction * mGeometry.getMax());
+		// Use the exact level rather than the rounded progress so animating
+		// the level moves smoothly
+		mGeometry.setProgressSweep(fraction * mGeometry.getSweepAngle());
+		return true;
+	}
+
+	@Override
+	protected boolean onStateChange(int[] state) {
+		return mThumbVisible && mThumb.setState(state);
+	}
+
+	@Override
+	public boolean isStateful() {
+		return mThumb.isStateful();
+	}
+
+	public int getProgress() {
+		return mProgress;
+	}
+
+	/**
+	 * Sets the progress in the range 0..max. Resets the level to match.
+	 */
+	public void setProgress(int progress) {
+		progress = (progress > mGeometry.getMax()) ? mGeometry.getMax()
+				: progress;
+		progress = (progress < 0) ? 0 : progress;
+		setLevel(Math.round((float) progress / mGeometry.getMax() * MAX_LEVEL));
+		mProgress = progress;
+		mGeometry.setProgress(progress);
+		invalidateSelf();
+	}
+
+	public int getMax() {
+		return mGeometry.getMax();
+	}
+
+	public void setMax(int max) {
+		mGeometry.setMax(max);
+		setProgress(Math.min(mProgress, max));
+	}
+
+	public boolean isThumbVisible() {
+		return mThumbVisible;
+	}
+
+	public void setThumbVisible(boolean visible) {
+		mThumbVisible = visible;
+		invalidateSelf();
+	}
+
+	/**
+	 * Sets the space between the bounds and the arc. By default there is
+	 * just enough for the strokes and the thumb.
+	 */
+	public void setPadding(int left, int top, int right, int bottom) {
+		mPaddingLeft = left;
+		mPaddingTop = top;
+		mPaddingRight = right;
+		mPaddingBottom = bottom;
+		layoutArc();
+		invalidateSelf();
+	}
+
+	public int getProgressColor() {
+		return mProgressPaint.getColor();
+	}
+
+	public void setProgressColor(int color) {
+		mutableProgressPaint().setColor(color);
+		invalidateSelf();
+	}
+
+	public int getArcColor() {
+		return mArcPaint.getColor();
+	}
+
+	public void setArcColor(int color) {
+		mutableArcPaint().setColor(color);
+		invalidateSelf();
+	}
+
+	public SeekArcStyle getStyle() {
+		return mStyle;
+	}
+
+	@Override
+	public void setAlpha(int alpha) {
+		mutableArcPaint().setAlpha(alpha);
+		mutableProgressPaint().setAlpha(alpha);
+		mThumb.setAlpha(alpha);
+		invalidateSelf();
+	}
+
+	@Override
+	public void setColorFilter(ColorFilter colorFilter) {
+		mutableArcPaint().setColorFilter(colorFilter);
+		mutableProgressPaint().setColorFilter(colorFilter);
+		mThumb.setColorFilter(colorFilter);
+		invalidateSelf();
+	}
+
+	@Override
+	public int getOpacity() {
+		return PixelFormat.TRANSLUCENT;
+	}
+
+	// The style's paints are shared, so take a copy before the first change
+	private Paint mutableArcPaint() {
+		if (mArcPaint == mStyle.arcPaint) {
+			mArcPaint = new Paint(mArcPaint);
+		}
+		return mArcPaint;
+	}
+
+	private Paint mutableProgressPaint() {
+		if (mProgressPaint == mStyle.progressPaint) {
+			mProgressPaint = new Paint(mProgressPaint);
+		}
+		return mProgressPaint;
+	}
+}
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc;
+
+/**
+ * 
+ * SeekArcMetrics.java
+ * 
+ * Timings and counts recorded by a SeekArc once
+ * {@link SeekArc#setMetricsEnabled(boolean)} is on, for exporting to your
+ * own telemetry. Durations go into fixed size histograms so recording never
+ * allocates. Everything is recorded on the UI thread and should be read and
+ * reset there too.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public final class SeekArcMetrics {
+
+	/**
+	 * Durations in nanoseconds, counted in buckets that double in width.
+	 * Bucket 0 holds anything under 1024ns (about a microsecond), bucket i
+	 * holds [512ns << i, 1024ns << i) and the last bucket holds everything
+	 * beyond that.
+	 */
+	public static final class Histogram {
+
+		public static final int BUCKET_COUNT = 32;
+
+		private static final int FIRST_BUCKET_SHIFT = 10;
+
+		private final long[] mBuckets = new long[BUCKET_COUNT];
+		private long mCount;
+		private long mTotalNanos;
+		private long mMaxNanos;
+
+		Histogram() {
+		}
+
+		void record(long nanos) {
+			if (nanos < 0) {
+				nanos = 0;
+			}
+			final int bucket = 64 - Long.numberOfLeadingZeros(nanos >>> FIRST_BUCKET_SHIFT);
+			mBuckets[bucket < BUCKET_COUNT ? bucket : BUCKET_COUNT - 1]++;
+			mCount++;
+			mTotalNanos += nanos;
+			if (nanos > mMaxNanos) {
+				mMaxNanos = nanos;
+			}
+		}
+
+		public long getCount() {
+			return mCount;
+		}
+
+		public long getTotalNanos() {
+			return mTotalNanos;
+		}
+
+		public long getMaxNanos() {
+			return mMaxNanos;
+		}
+
+		public long getMeanNanos() {
+			return mCount == 0 ? 0 : mTotalNanos / mCount;
+		}
+
+		/**
+		 * @return How many durations fell in the given bucket
+		 */
+		public long getBucketCount(int bucket) {
+			return mBuckets[bucket];
+		}
+
+		/**
+		 * @return The exclusive upper bound of the given bucket, or
+		 *         Long.MAX_VALUE for the last one
+		 */
+		public static long getBucketUpperBoundNanos(int bucket) {
+			if (bucket >= BUCKET_COUNT - 1) {
+				return Long.MAX_VALUE;
+			}
+			return 1L << (bucket + FIRST_BUCKET_SHIFT);
+		}
+
+		/**
+		 * Estimates a percentile as the upper bound of the bucket it falls
+		 * in, capped at the longest duration seen.
+		 * 
+		 * @param percentile
+		 *            0..100, e.g. 99 for the 99th percentile
+		 * @return The estimate in nanoseconds, or 0 if nothing has been
+		 *         recorded
+		 */
+		public long getPercentileNanos(double percentile) {
+			if (mCount == 0) {
+				return 0;
+			}
+			final double target = Math.max(1, Math.ceil(mCount * percentile / 100));
+			long seen = 0;
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				seen += mBuckets[i];
+				if (seen >= target) {
+					return Math.min(getBucketUpperBoundNanos(i), mMaxNanos);
+				}
+			}
+			return mMaxNanos;
+		}
+
+		public void reset() {
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				mBuckets[i] = 0;
+			}
+			mCount = 0;
+			mTotalNanos = 0;
+			mMaxNanos = 0;
+		}
+	}
+
+	private final Histogram mDraw = new Histogram();
+	private final Histogram mMeasure = new Histogram();
+	private final Histogram mTouchToInvalidate = new Histogram();
+	private final Histogram mListener = new Histogram();
+	private long mRedundantProgressUpdates;
+	private long mTouchStartNanos;
+	private boolean mTouchPending = false;
+
+	SeekArcMetrics() {
+	}
+
+	/**
+	 * @return How long each onDraw took. The count is the number of draws.
+	 */
+	public Histogram getDrawTimes() {
+		return mDraw;
+	}
+
+	/**
+	 * @return How long each onMeasure took. The count is the number of
+	 *         measure passes.
+	 */
+	public Histogram getMeasureTimes() {
+		return mMeasure;
+	}
+
+	/**
+	 * @return The time from a touch event reaching the SeekArc to it
+	 *         invalidating the arc. Touch events that don't change the arc
+	 *         aren't counted.
+	 */
+	public Histogram getTouchToInvalidateTimes() {
+		return mTouchToInvalidate;
+	}
+
+	/**
+	 * @return How long each listener dispatch took, across all the
+	 *         listeners it went to
+	 */
+	public Histogram getListenerTimes() {
+		return mListener;
+	}
+
+	/**
+	 * @return How many progress updates, from touches or code, didn't change
+	 *         the progress
+	 */
+	public long getRedundantProgressUpdates() {
+		return mRedundantProgressUpdates;
+	}
+
+	public void reset() {
+		mDraw.reset();
+		mMeasure.reset();
+		mTouchToInvalidate.reset();
+		mListener.reset();
+		mRedundantProgressUpdates = 0;
+	}
+
+	void recordDraw(long nanos) {
+		mDraw.record(nanos);
+	}
+
+	void recordMeasure(long nanos) {
+		mMeasure.record(nanos);
+	}
+
+	void recordListener(long nanos) {
+		mListener.record(nanos);
+	}
+
+	void countRedundantProgressUpdate() {
+		mRedundantProgressUpdates++;
+	}
+
+	void beginTouch(long nanos) {
+		mTouchStartNanos = nanos;
+		mTouchPending = true;
+	}
+
+	void endTouch() {
+		mTouchPending = false;
+	}
+
+	/**
+	 * Records the latency of the touch being handled, the first time it
+	 * invalidates the arc.
+	 */
+	void touchInvalidated() {
+		if (mTouchPending) {
+			mTouchPending = false;
+			mTouchToInvalidate.record(System.nanoTime() - mTouchStartNanos);
+		}
+	}
+}
@@ -0,0 +1,363 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+
+/**
+ * 
+ * SeekArcStyle.java
+ * 
+ * The resolved look of a SeekArc: sizes, colours, angles and the thumb. A
+ * style is resolved once per theme and style resource, or set of inline
+ * attribute values, and then shared by every SeekArc that uses it, so
+ * inflating many arcs with the same style reads the attributes, loads the
+ * thumb and builds the paints only once.
+ * 
+ * Styles are immutable. The paints are shared until a SeekArc changes one
+ * of them, at which point that SeekArc takes its own copy.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public final class SeekArcStyle {
+
+	// Resolved styles per theme, then per default style attribute, then per
+	// style resource
+	private static final Map<Resources.Theme, SparseArray<SparseArray<SeekArcStyle>>> sCache =
+			new WeakHashMap<Resources.Theme, SparseArray<SparseArray<SeekArcStyle>>>();
+
+	// Styles for XML with inline SeekArc attributes per theme, keyed by the
+	// raw attribute values. Layouts are fixed so there are only ever a few,
+	// but the number kept is capped in case attribute sets are built in code.
+	private static final Map<Resources.Theme, Map<String, SeekArcStyle>> sInlineCache =
+			new WeakHashMap<Resources.Theme, Map<String, SeekArcStyle>>();
+	private static final int MAX_INLINE_STYLES = 32;
+
+	final int max;
+	final int progress;
+	final int progressWidth;
+	final int arcWidth;
+	final int startAngle;
+	final int sweepAngle;
+	final int rotation;
+	final boolean roundedEdges;
+	final boolean touchInside;
+	final boolean clockwise;
+	final boolean enabled;
+
+	/**
+	 * Shared, never to be modified. Copy before changing.
+	 */
+	final Paint arcPaint;
+	final Paint progressPaint;
+
+	private final Drawable.ConstantState mThumbState;
+	private final int mThumbResId;
+	final int thumbHalfWidth;
+	final int thumbHalfHeight;
+
+	private SeekArcStyle(Context context, AttributeSet attrs, int defStyleAttr,
+			int defStyleRes) {
+		final Resources res = context.getResources();
+		float density = res.getDisplayMetrics().density;
+
+		// Defaults, may need to link this into theme settings
+		int arcColor = res.getColor(R.color.progress_gray);
+		int progressColor = res.getColor(R.color.default_blue_light);
+		int thumbResId = R.drawable.seek_arc_control_selector;
+		Drawable thumb = null;
+		int max = 100;
+		int progress = 0;
+		// Convert progress width to pixels for current density
+		int progressWidth = (int) (4 * density);
+		int arcWidth = 2;
+		int startAngle = 0;
+		int sweepAngle = 360;
+		int rotation = 0;
+		boolean roundedEdges = false;
+		boolean touchInside = true;
+		boolean clockwise = true;
+		boolean enabled = true;
+
+		if (attrs != null || defStyleAttr != 0 || defStyleRes != 0) {
+			final TypedArray a = context.obtainStyledAttributes(attrs,
+					R.styleable.SeekArc, defStyleAttr, defStyleRes);
+
+			thumbResId = a.getResourceId(R.styleable.SeekArc_thumb, thumbResId);
+			thumb = a.getDrawable(R.styleable.SeekArc_thumb);
+			max = a.getInteger(R.styleable.SeekArc_max, max);
+			progress = a.getInteger(R.styleable.SeekArc_progress, progress);
+			progressWidth = (int) a.getDimension(
+					R.styleable.SeekArc_progressWidth, progressWidth);
+			arcWidth = (int) a.getDimension(R.styleable.SeekArc_arcWidth,
+					arcWidth);
+			startAngle = a.getInt(R.styleable.SeekArc_startAngle, startAngle);
+			sweepAngle = a.getInt(R.styleable.SeekArc_sweepAngle, sweepAngle);
+			rotation = a.getInt(R.styleable.SeekArc_rotation, rotation);
+			roundedEdges = a.getBoolean(R.styleable.SeekArc_roundEdges,
+					roundedEdges);
+			touchInside = a.getBoolean(R.styleable.SeekArc_touchInside,
+					touchInside);
+			clockwise = a.getBoolean(R.styleable.SeekArc_clockwise, clockwise);
+			enabled = a.getBoolean(R.styleable.SeekArc_enabled, enabled);
+
+			arcColor = a.getColor(R.styleable.SeekArc_arcColor, arcColor);
+			progressColor = a.getColor(R.styleable.SeekArc_progressColor,
+					progressColor);
+
+			a.recycle();
+		}
+
+		if (thumb == null) {
+			thumb = res.getDrawable(thumbResId);
+		}
+
+		progress = (progress > max) ? max : progress;
+		progress = (progress < 0) ? 0 : progress;
+
+		sweepAngle = (sweepAngle > 360) ? 360 : sweepAngle;
+		sweepAngle = (sweepAngle < 0) ? 0 : sweepAngle;
+
+		startAngle = (startAngle > 360) ? 0 : startAngle;
+		startAngle = (startAngle < 0) ? 0 : startAngle;
+
+		this.max = max;
+		this.progress = progress;
+		this.progressWidth = progressWidth;
+		this.arcWidth = arcWidth;
+		this.startAngle = startAngle;
+		this.sweepAngle = sweepAngle;
+		this.rotation = rotation;
+		this.roundedEdges = roundedEdges;
+		this.touchInside = touchInside;
+		this.clockwise = clockwise;
+		this.enabled = enabled;
+
+		mThumbState = thumb.getConstantState();
+		mThumbResId = thumbResId;
+		thumbHalfWidth = thumb.getIntrinsicWidth() / 2;
+		thumbHalfHeight = thumb.getIntrinsicHeight() / 2;
+
+		arcPaint = createPaint(arcColor, arcWidth, roundedEdges);
+		progressPaint = createPaint(progressColor, progressWidth, roundedEdges);
+	}
+
+	private static Paint createPaint(int color, int width, boolean roundedEdges) {
+		Paint paint = new Paint();
+		paint.setColor(color);
+		paint.setAntiAlias(true);
+		paint.setStyle(Paint.Style.STROKE);
+		paint.setStrokeWidth(width);
+		if (roundedEdges) {
+			paint.setStrokeCap(Paint.Cap.ROUND);
+		}
+		return paint;
+	}
+
+	/**
+	 * Returns the style for the given style resource under the context's
+	 * theme, resolving it the first time it is asked for.
+	 * 
+	 * @param context
+	 *            The context whose theme and resources resolve the style
+	 * @param styleRes
+	 *            A style resource holding SeekArc attributes, or 0 for the
+	 *            library defaults
+	 */
+	public static SeekArcStyle obtain(Context context, int styleRes) {
+		return obtain(context, null, 0, styleRes);
+	}
+
+	/**
+	 * Returns the style for an inflated SeekArc. Arcs whose XML only names a
+	 * style share the cached instance for that style. Arcs that set SeekArc
+	 * attributes inline share a style with every arc whose XML has the same
+	 * inline values, e.g. every row inflated from one list item layout.
+	 */
+	static SeekArcStyle obtain(Context context, AttributeSet attrs,
+			int defStyleAttr) {
+		if (attrs == null) {
+			return obtain(context, null, defStyleAttr, 0);
+		}
+		final String key = inlineKey(attrs, defStyleAttr);
+		if (key == null) {
+			return obtain(context, attrs, defStyleAttr,
+					attrs.getStyleAttribute());
+		}
+
+		final Resources.Theme theme = context.getTheme();
+		synchronized (sInlineCache) {
+			Map<String, SeekArcStyle> styles = sInlineCache.get(theme);
+			if (styles == null) {
+				styles = new HashMap<String, SeekArcStyle>();
+				sInlineCache.put(theme, styles);
+			}
+			SeekArcStyle style = styles.get(key);
+			if (style == null) {
+				style = new SeekArcStyle(context, attrs, defStyleAttr, 0);
+				if (styles.size() < MAX_INLINE_STYLES) {
+					styles.put(key, style);
+				}
+			}
+			return style;
+		}
+	}
+
+	/**
+	 * @param attrs
+	 *            Only used to resolve the style on a cache miss, so it must
+	 *            carry no SeekArc attributes of its own
+	 */
+	private static SeekArcStyle obtain(Context context, AttributeSet attrs,
+			int defStyleAttr, int styleRes) {
+		final Resources.Theme theme = context.getTheme();
+		synchronized (sCache) {
+			SparseArray<SparseArray<SeekArcStyle>> byDefStyle = sCache.get(theme);
+			if (byDefStyle == null) {
+				byDefStyle = new SparseArray<SparseArray<SeekArcStyle>>();
+				sCache.put(theme, byDefStyle);
+			}
+			SparseArray<SeekArcStyle> byStyle = byDefStyle.get(defStyleAttr);
+			if (byStyle == null) {
+				byStyle = new SparseArray<SeekArcStyle>();
+				byDefStyle.put(defStyleAttr, byStyle);
+			}
+			SeekArcStyle style = byStyle.get(styleRes);
+			if (style == null) {
+				style = attrs != null
+						? new SeekArcStyle(context, attrs, defStyleAttr, 0)
+						: new SeekArcStyle(context, null, defStyleAttr, styleRes);
+				byStyle.put(styleRes, style);
+			}
+			return style;
+		}
+	}
+
+	/**
+	 * Builds a key from the style and the raw values of the SeekArc
+	 * attributes set inline. Raw values name resources and theme attributes
+	 * rather than resolving them, which is why the cache is per theme.
+	 * 
+	 * @return The key, or null if no SeekArc attributes are set inline
+	 */
+	private static String inlineKey(AttributeSet attrs, int defStyleAttr) {
+		final int[] seekArcAttrs = R.styleable.SeekArc;
+		StringBuilder key = null;
+		for (int i = 0, count = attrs.getAttributeCount(); i < count; i++) {
+			final int name = attrs.getAttributeNameResource(i);
+			for (int attr : seekArcAttrs) {
+				if (attr == name) {
+					if (key == null) {
+						key = new StringBuilder(64).append(defStyleAttr)
+								.append('/').append(attrs.getStyleAttribute());
+					}
+					key.append(';').append(name).append('=')
+							.append(attrs.getAttributeValue(i));
+					break;
+				}
+			}
+		}
+		return key != null ? key.toString() : null;
+	}
+
+	/**
+	 * A new thumb drawable for one SeekArc. Thumbs carry per-view state and
+	 * bounds so each arc needs its own, but they share the loaded image
+	 * through the drawable's constant state.
+	 */
+	Drawable newThumb(Resources res) {
+		final Drawable thumb;
+		if (mThumbState != null) {
+			thumb = mThumbState.newDrawable(res);
+		} else {
+			thumb = res.getDrawable(mThumbResId);
+		}
+		thumb.setBounds(-thumbHalfWidth, -thumbHalfHeight, thumbHalfWidth,
+				thumbHalfHeight);
+		return thumb;
+	}
+
+	public int getMax() {
+		return max;
+	}
+
+	public int getProgress() {
+		return progress;
+	}
+
+	public int getProgressWidth() {
+		return progressWidth;
+	}
+
+	public int getArcWidth() {
+		return arcWidth;
+	}
+
+	public int getStartAngle() {
+		return startAngle;
+	}
+
+	public int getSweepAngle() {
+		return sweepAngle;
+	}
+
+	public int getArcRotation() {
+		return rotation;
+	}
+
+	public boolean isRoundedEdges() {
+		return roundedEdges;
+	}
+
+	public boolean isTouchInside() {
+		return touchInside;
+	}
+
+	public boolean isClockwise() {
+		return clockwise;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public int getArcColor() {
+		return arcPaint.getColor();
+	}
+
+	public int getProgressColor() {
+		return progressPaint.getColor();
+	}
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * The MIT License (MIT)
+ * 
+ * Copyright (c) 2013 Triggertrap Ltd
+ * Author Neil Davies
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ ******************************************************************************/
+package com.triggertrap.seekarc;
+
+import android.content.Context;
+import android.test.AndroidTestCase;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+
+import com.triggertrap.seekarc.test.R;
+
+/**
+ * 
+ * SeekArcStyleTest.java
+ * 
+ * Checks that inflated and code-built arcs share their resolved style, and
+ * that arcs under different themes don't. Runs on the instrumentation
+ * thread, which has no Looper, so it also covers building arcs off the
+ * main thread.
+ * 
+ * @author Neil Davies
+ * 
+ */
+public class SeekArcStyleTest extends AndroidTestCase {
+
+	private static final int COUNT = 200;
+
+	public void testCodeBuiltArcsShareStyle() {
+		final SeekArc first = new SeekArc(getContext());
+		final SeekArc second = new SeekArc(getContext());
+		assertSame(first.getStyle(), second.getStyle());
+		assertSame(SeekArcStyle.obtain(getContext(), 0), first.getStyle());
+	}
+
+	public void testInlineAttributesShareStyle() {
+		final SeekArc first = inflate(getContext(), R.layout.seek_arc_inline);
+		final SeekArc second = inflate(getContext(), R.layout.seek_arc_inline);
+		assertSame(first.getStyle(), second.getStyle());
+		assertEquals(45, first.getStyle().getStartAngle());
+		assertEquals(270, first.getStyle().getSweepAngle());
+	}
+
+	public void testStyledLayoutsShareStyle() {
+		final SeekArc first = inflate(getContext(), R.layout.seek_arc_styled);
+		final SeekArc second = inflate(getContext(), R.layout.seek_arc_styled);
+		assertSame(first.getStyle(), second.getStyle());
+	}
+
+	public void testStylesArePerTheme() {
+		final SeekArc first = inflate(newTheme(), R.layout.seek_arc_inline);
+		final SeekArc second = inflate(newTheme(), R.layout.seek_arc_inline);
+		assertNotSame(first.getStyle(), second.getStyle());
+	}
+
+	public void testManyInflatedArcsShareOneStyle() {
+		final SeekArc first = inflate(getContext(), R.layout.seek_arc_inline);
+		for (int i = 0; i < COUNT; i++) {
+			assertSame(first.getStyle(),
+					inflate(getContext(), R.layout.seek_arc_inline).getStyle());
+		}
+	}
+
+	private Context newTheme() {
+		return new ContextThemeWrapper(getContext(),
+				android.R.style.Theme_Light);
+	}
+
+	private static SeekArc inflate(Context context, int layout) {
+		return (SeekArc) LayoutInflater.from(context).inflate(layout, null);
+	}
+}